@@ -0,0 +1,66 @@
+package com.register.springboot.benchmark;
+
+import com.register.springboot.SpringbootApplication;
+import com.register.springboot.model.Product;
+import com.register.springboot.model.User;
+import com.register.springboot.repository.ProductRepository;
+import com.register.springboot.repository.UserRepository;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * BenchmarkContext - Boots the application once per JMH fork on H2 (profile "bench")
+ * and seeds the data the benchmarks need
+ */
+final class BenchmarkContext {
+
+    static final String USER_NAME = "benchuser";
+    static final String HOT_PRODUCT = "Benchmark Weekly";
+
+    private static ConfigurableApplicationContext context;
+
+    private BenchmarkContext() {
+    }
+
+    static synchronized ConfigurableApplicationContext get() {
+        if (context == null) {
+            SpringApplication app = new SpringApplication(SpringbootApplication.class);
+            app.setAdditionalProfiles("bench");
+            context = app.run();
+            seed(context);
+        }
+        return context;
+    }
+
+    static synchronized void close() {
+        if (context != null) {
+            context.close();
+            context = null;
+        }
+    }
+
+    static <T> T bean(Class<T> type) {
+        return get().getBean(type);
+    }
+
+    private static void seed(ConfigurableApplicationContext context) {
+        UserRepository users = context.getBean(UserRepository.class);
+        User user = new User();
+        user.setUserName(USER_NAME);
+        user.setPassword(context.getBean(PasswordEncoder.class).encode("benchpass"));
+        user.setEmail("bench@example.com");
+        user.setDob("1990-01-01");
+        user.setAge(30);
+        user.setRoles("ROLE_USER");
+        users.save(user);
+
+        // Effectively unlimited stock so placeOrder keeps accepting
+        Product product = new Product();
+        product.setName(HOT_PRODUCT);
+        product.setDescription("Synthetic product used by the order benchmarks.");
+        product.setPrice(9.99);
+        product.setStock(Integer.MAX_VALUE);
+        context.getBean(ProductRepository.class).save(product);
+    }
+}
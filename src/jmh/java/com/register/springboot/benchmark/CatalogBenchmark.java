@@ -0,0 +1,62 @@
+package com.register.springboot.benchmark;
+
+import com.register.springboot.model.Product;
+import com.register.springboot.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CatalogBenchmark - ProductService.searchProducts and getProductById on H2
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CatalogBenchmark {
+
+    /** Search terms: prefix, common word, multi-term AND and a miss */
+    @State(Scope.Thread)
+    public static class Query {
+        @Param({ "geo", "business", "business tech", "nomatch" })
+        public String text;
+    }
+
+    private ProductService productService;
+    private Long productId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        productService = BenchmarkContext.bean(ProductService.class);
+        productId = productService.getAllProducts().get(0).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkContext.close();
+    }
+
+    @Benchmark
+    public List<Product> searchProducts(Query query) {
+        return productService.searchProducts(query.text);
+    }
+
+    @Benchmark
+    public Product getProductById() {
+        return productService.getProductById(productId);
+    }
+}
@@ -0,0 +1,117 @@
+package com.register.springboot.benchmark;
+
+import com.register.springboot.model.Order;
+import com.register.springboot.model.Product;
+import com.register.springboot.model.RevenueReport;
+import com.register.springboot.model.User;
+import com.register.springboot.repository.OrderRepository;
+import com.register.springboot.repository.ProductRepository;
+import com.register.springboot.repository.UserRepository;
+import com.register.springboot.service.OrderAnalytics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OrderAnalyticsBenchmark - Revenue reports from OrderAnalytics against the same GROUP BY on H2
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderAnalyticsBenchmark {
+
+    private static final String[] STATES = { "Karnataka", "Kerala", "Goa", "Punjab", "Gujarat",
+            "Assam", "Bihar", "Odisha", "Sikkim", "Haryana" };
+    private static final String[] STATUSES = { "ACCEPTED", "ACCEPTED", "ACCEPTED", "REJECTED", "PENDING" };
+
+    /** Orders in the table */
+    @Param({ "100000", "1000000" })
+    public int orders;
+
+    private OrderAnalytics orderAnalytics;
+    private JdbcTemplate jdbcTemplate;
+    private LocalDate since;
+    private int sqlCalls;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        orderAnalytics = BenchmarkContext.bean(OrderAnalytics.class);
+        jdbcTemplate = BenchmarkContext.bean(JdbcTemplate.class);
+        since = LocalDate.now().minusDays(29);
+
+        User user = BenchmarkContext.bean(UserRepository.class).findByUserName(BenchmarkContext.USER_NAME);
+        List<Product> products = BenchmarkContext.bean(ProductRepository.class).findAll();
+        OrderRepository orderRepository = BenchmarkContext.bean(OrderRepository.class);
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+        List<Order> batch = new ArrayList<>(10_000);
+        for (int i = 0; i < orders; i++) {
+            Order order = new Order();
+            order.setUser(user);
+            order.setProduct(products.get(random.nextInt(products.size())));
+            order.setQuantity(1 + random.nextInt(5));
+            order.setTotalPrice(order.getProduct().getPrice() * order.getQuantity());
+            String state = STATES[random.nextInt(STATES.length)];
+            order.setState(state);
+            order.setCity(state + " City " + random.nextInt(20));
+            order.setStatus(STATUSES[random.nextInt(STATUSES.length)]);
+            order.setOrderDate(now.minusMinutes(random.nextInt(365 * 24 * 60)));
+            batch.add(order);
+            if (batch.size() == 10_000) {
+                orderRepository.insertAll(batch);
+                batch.clear();
+            }
+        }
+        orderRepository.insertAll(batch);
+        orderAnalytics.reload();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkContext.close();
+    }
+
+    @Benchmark
+    public RevenueReport revenueByProduct() {
+        return orderAnalytics.report(OrderAnalytics.Grouping.PRODUCT, since, null, "ACCEPTED", 5);
+    }
+
+    @Benchmark
+    public RevenueReport revenueByState() {
+        return orderAnalytics.report(OrderAnalytics.Grouping.STATE, since, null, "ACCEPTED", 5);
+    }
+
+    @Benchmark
+    public RevenueReport revenueByDay() {
+        return orderAnalytics.report(OrderAnalytics.Grouping.DAY, null, null, "ACCEPTED", 0);
+    }
+
+    /** What the state report would cost as SQL (the bound moves by a millisecond per call, so H2 cannot reuse the last result) */
+    @Benchmark
+    public List<Map<String, Object>> revenueByStateSql() {
+        LocalDateTime from = since.atStartOfDay().plusNanos((sqlCalls++ % 1000) * 1_000_000L);
+        return jdbcTemplate.queryForList("select state, count(*), sum(quantity), sum(total_price) from orders "
+                + "where status = 'ACCEPTED' and order_date >= ? group by state", from);
+    }
+}
@@ -0,0 +1,94 @@
+package com.register.springboot.benchmark;
+
+import com.register.springboot.model.Order;
+import com.register.springboot.model.Product;
+import com.register.springboot.model.User;
+import com.register.springboot.repository.ProductRepository;
+import com.register.springboot.repository.UserRepository;
+import com.register.springboot.service.OrderJournal;
+import com.register.springboot.service.OrderService;
+import com.register.springboot.support.TestOrders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OrderJournalBenchmark - What a checkout waits for: direct save versus the order journal
+ * "direct" is OrderService.placeOrder (insert and commit); "journal" is
+ * OrderJournal.submit (append and group fsync), falling back to placeOrder
+ * when the journal is full, as the controller does. Four clients at once, so
+ * journal syncs are shared. H2 here keeps its data in memory, so the direct
+ * path has no disk or network cost and MySQL would only make it slower.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class OrderJournalBenchmark {
+
+    @Param({ "direct", "journal" })
+    public String path;
+
+    private OrderService orderService;
+    private OrderJournal orderJournal;
+    private User user;
+    private Product product;
+    private Path journalDirectory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        if ("journal".equals(path)) {
+            // Read when the context boots, which happens once per fork
+            journalDirectory = Files.createTempDirectory("order-journal-bench");
+            System.setProperty("app.orders.journal.enabled", "true");
+            System.setProperty("app.orders.journal.path", journalDirectory.resolve("journal.bin").toString());
+        }
+        orderService = BenchmarkContext.bean(OrderService.class);
+        orderJournal = BenchmarkContext.bean(OrderJournal.class);
+        user = BenchmarkContext.bean(UserRepository.class).findByUserName(BenchmarkContext.USER_NAME);
+        for (Product candidate : BenchmarkContext.bean(ProductRepository.class).findAll()) {
+            if (BenchmarkContext.HOT_PRODUCT.equals(candidate.getName())) {
+                product = candidate;
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkContext.close();
+        if (journalDirectory != null) {
+            Files.deleteIfExists(journalDirectory.resolve("journal.bin"));
+            Files.deleteIfExists(journalDirectory);
+        }
+    }
+
+    @Benchmark
+    public Object placeOrder() {
+        Order order = TestOrders.validOrder();
+        if (orderJournal.isEnabled()) {
+            String trackingId = orderJournal.submit(order, user, product);
+            if (trackingId != null) {
+                return trackingId;
+            }
+        }
+        return orderService.placeOrder(order, user, product.getId());
+    }
+}
@@ -0,0 +1,60 @@
+package com.register.springboot.benchmark;
+
+import com.register.springboot.model.Order;
+import com.register.springboot.model.Product;
+import com.register.springboot.model.User;
+import com.register.springboot.repository.ProductRepository;
+import com.register.springboot.repository.UserRepository;
+import com.register.springboot.service.OrderService;
+import com.register.springboot.support.TestOrders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OrderPlacementBenchmark - OrderService.placeOrder end to end on H2
+ * (product lookup, validation, stock reservation, insert, commit)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderPlacementBenchmark {
+
+    private OrderService orderService;
+    private User user;
+    private Long productId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        orderService = BenchmarkContext.bean(OrderService.class);
+        user = BenchmarkContext.bean(UserRepository.class).findByUserName(BenchmarkContext.USER_NAME);
+        for (Product product : BenchmarkContext.bean(ProductRepository.class).findAll()) {
+            if (BenchmarkContext.HOT_PRODUCT.equals(product.getName())) {
+                productId = product.getId();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkContext.close();
+    }
+
+    @Benchmark
+    public Order placeOrder() {
+        return orderService.placeOrder(TestOrders.validOrder(), user, productId);
+    }
+}
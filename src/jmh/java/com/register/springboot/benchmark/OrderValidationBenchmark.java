@@ -0,0 +1,68 @@
+package com.register.springboot.benchmark;
+
+import com.register.springboot.model.Order;
+import com.register.springboot.service.OrderService;
+import com.register.springboot.service.OrderValidator;
+import com.register.springboot.support.TestOrders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OrderValidationBenchmark - OrderValidator and OrderService.validateOrder on valid and invalid input
+ * Pure CPU, no Spring context needed. Run with "-prof gc" to see the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderValidationBenchmark {
+
+    private OrderService orderService;
+    private Order validOrder;
+    private Order invalidOrder;
+
+    @Setup
+    public void setUp() {
+        orderService = new OrderService();
+
+        validOrder = TestOrders.validOrder();
+
+        invalidOrder = new Order();
+        invalidOrder.setCustomerName("R4vi");
+        invalidOrder.setPhone("12345");
+        invalidOrder.setCity("B'lore");
+        invalidOrder.setState("KA1");
+        invalidOrder.setCardNumber("1234");
+    }
+
+    // Touching a checked field drops the remembered result, so every call really validates
+
+    @Benchmark
+    public int validOrder() {
+        validOrder.setCustomerName(validOrder.getCustomerName());
+        return OrderValidator.validate(validOrder);
+    }
+
+    @Benchmark
+    public int invalidOrder() {
+        invalidOrder.setCustomerName(invalidOrder.getCustomerName());
+        return OrderValidator.validate(invalidOrder);
+    }
+
+    @Benchmark
+    public String invalidOrderMessages() {
+        invalidOrder.setCustomerName(invalidOrder.getCustomerName());
+        return orderService.validateOrder(invalidOrder);
+    }
+}
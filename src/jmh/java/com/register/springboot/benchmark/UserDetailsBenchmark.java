@@ -0,0 +1,53 @@
+package com.register.springboot.benchmark;
+
+import com.register.springboot.security.MyUserDetailsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.UserDetails;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UserDetailsBenchmark - MyUserDetailsService.loadUserByUsername on H2,
+ * served from the user cache and with the cache emptied before every call
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserDetailsBenchmark {
+
+    private MyUserDetailsService userDetailsService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        userDetailsService = BenchmarkContext.bean(MyUserDetailsService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkContext.close();
+    }
+
+    @Benchmark
+    public UserDetails cached() {
+        return userDetailsService.loadUserByUsername(BenchmarkContext.USER_NAME);
+    }
+
+    @Benchmark
+    public UserDetails uncached() {
+        userDetailsService.evictAll();
+        return userDetailsService.loadUserByUsername(BenchmarkContext.USER_NAME);
+    }
+}
@@ -0,0 +1,292 @@
+package com.register.springboot.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.register.springboot.SpringbootApplication;
+import com.register.springboot.model.Product;
+import com.register.springboot.model.User;
+import com.register.springboot.repository.ProductRepository;
+import com.register.springboot.repository.UserRepository;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LoadTest - Boots the application on H2, seeds users and products and drives
+ * concurrent virtual users through login, browse, search, order and history
+ *
+ * Settings are key=value arguments (defaults in brackets):
+ *   users [50]          seeded customer accounts
+ *   products [200]      seeded products
+ *   concurrency [50]    virtual users running at once
+ *   warmup [10]         seconds before measuring starts
+ *   duration [30]       measured seconds
+ *   session [20]        requests per login session
+ *   think-ms [0]        pause between requests of one virtual user
+ *   mix [browse:40,search:20,order:20,history:20]  request weights
+ *   report [target/loadtest-result.json]
+ * Arguments starting with "--" are passed to Spring, e.g. --app.security.bcrypt.strength=12
+ */
+public final class LoadTest {
+
+    static final String PASSWORD = "loadtest";
+
+    private static final String DEFAULT_MIX = "browse:40,search:20,order:20,history:20";
+
+    /** Measured request types */
+    enum Action {
+        LOGIN("POST /login"),
+        BROWSE("GET /products"),
+        SEARCH("GET /products/search"),
+        ORDER("POST /order/{productId}"),
+        HISTORY("GET /my-orders");
+
+        private final String endpoint;
+
+        Action(String endpoint) {
+            this.endpoint = endpoint;
+        }
+    }
+
+    private static final String[] WORDS = {
+            "business", "technology", "science", "travel", "fashion", "sports", "finance", "health",
+            "design", "music", "history", "nature", "food", "gaming", "politics", "culture" };
+
+    private final Map<String, String> settings;
+    private final Map<Action, EndpointStats> stats = new EnumMap<>(Action.class);
+    private final List<Long> productIds = new ArrayList<>();
+    private final List<String> searchTerms = new ArrayList<>();
+    private final int sessionLength;
+    private final long thinkMillis;
+    private Action[] weightedActions;
+    private String baseUrl;
+    private volatile boolean running = true;
+    private volatile boolean recording;
+
+    private LoadTest(Map<String, String> settings) {
+        this.settings = settings;
+        for (Action action : Action.values()) {
+            stats.put(action, new EndpointStats(action.endpoint));
+        }
+        parseMix(setting("mix", DEFAULT_MIX));
+        sessionLength = intSetting("session", 20);
+        thinkMillis = intSetting("think-ms", 0);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> settings = new LinkedHashMap<>();
+        List<String> springArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                springArgs.add(arg);
+            } else if (arg.contains("=")) {
+                settings.put(arg.substring(0, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+
+        SpringApplication app = new SpringApplication(SpringbootApplication.class);
+        app.setAdditionalProfiles("loadtest");
+        ConfigurableApplicationContext context = app.run(springArgs.toArray(new String[0]));
+        try {
+            new LoadTest(settings).run(context);
+        } finally {
+            context.close();
+        }
+    }
+
+    // ========================================
+    // RUN
+    // ========================================
+
+    private void run(ConfigurableApplicationContext context) throws Exception {
+        int users = intSetting("users", 50);
+        int concurrency = intSetting("concurrency", 50);
+        int warmup = intSetting("warmup", 10);
+        int duration = intSetting("duration", 30);
+
+        baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        List<String> userNames = seed(context, users, intSetting("products", 200));
+        System.out.printf("Load test: %d virtual users over %d accounts, %ds warm-up, %ds measured, mix %s%n",
+                concurrency, users, warmup, duration, setting("mix", DEFAULT_MIX));
+
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            pool.execute(new VirtualUser(this, userNames.get(i % userNames.size())));
+        }
+
+        TimeUnit.SECONDS.sleep(warmup);
+        recording = true;
+        long start = System.nanoTime();
+        TimeUnit.SECONDS.sleep(duration);
+        recording = false;
+        double seconds = (System.nanoTime() - start) / 1e9;
+        running = false;
+        pool.shutdown();
+        pool.awaitTermination(60, TimeUnit.SECONDS);
+
+        report(seconds);
+    }
+
+    // Customers share one password hash, so seeding does not pay BCrypt per user
+    private List<String> seed(ConfigurableApplicationContext context, int users, int products) {
+        String hash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+        List<User> accounts = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            User user = new User();
+            user.setUserName("load" + letters(i)); // user names may only contain letters
+            user.setPassword(hash);
+            user.setEmail("load" + i + "@example.com");
+            user.setDob("1990-01-01");
+            user.setAge(30);
+            user.setRoles("ROLE_USER");
+            accounts.add(user);
+            names.add(user.getUserName());
+        }
+        context.getBean(UserRepository.class).saveAll(accounts);
+
+        List<Product> catalog = new ArrayList<>();
+        for (int i = 0; i < products; i++) {
+            String first = WORDS[i % WORDS.length];
+            String second = WORDS[(i / WORDS.length + 3) % WORDS.length];
+            Product product = new Product();
+            product.setName(capitalize(first) + " " + capitalize(second) + " Monthly " + i);
+            product.setDescription("Stories about " + first + " and " + second + ".");
+            product.setPrice(5.0 + i % 20);
+            product.setStock(Integer.MAX_VALUE / 2);
+            catalog.add(product);
+        }
+        for (Product product : context.getBean(ProductRepository.class).saveAll(catalog)) {
+            productIds.add(product.getId());
+        }
+        for (String word : WORDS) {
+            searchTerms.add(word);
+            searchTerms.add(word.substring(0, 3));
+        }
+        searchTerms.add("business technology");
+        return names;
+    }
+
+    private void report(double seconds) throws Exception {
+        List<EndpointStats.Summary> summaries = new ArrayList<>();
+        long total = 0;
+        System.out.printf("%n%-26s %9s %7s %10s %9s %9s %9s %9s%n",
+                "Endpoint", "Requests", "Errors", "Req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (EndpointStats endpoint : stats.values()) {
+            EndpointStats.Summary s = endpoint.summarize(seconds);
+            summaries.add(s);
+            total += s.getRequests();
+            System.out.printf("%-26s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f%n", s.getEndpoint(), s.getRequests(),
+                    s.getErrors(), s.getThroughput(), s.getP50Millis(), s.getP95Millis(), s.getP99Millis(),
+                    s.getMaxMillis());
+        }
+        System.out.printf("%-26s %9d %7s %10.1f%n", "Total", total, "", total / seconds);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("settings", settings);
+        result.put("measuredSeconds", seconds);
+        result.put("endpoints", summaries);
+        File file = new File(setting("report", "target/loadtest-result.json"));
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, result);
+        System.out.println("Report written to " + file.getPath());
+    }
+
+    // ========================================
+    // USED BY VIRTUAL USERS
+    // ========================================
+
+    boolean isRunning() {
+        return running;
+    }
+
+    void record(Action action, boolean ok, long nanos) {
+        if (!recording) {
+            return;
+        }
+        if (ok) {
+            stats.get(action).success(nanos);
+        } else {
+            stats.get(action).error();
+        }
+    }
+
+    Action pickAction() {
+        return weightedActions[ThreadLocalRandom.current().nextInt(weightedActions.length)];
+    }
+
+    long randomProductId() {
+        return productIds.get(ThreadLocalRandom.current().nextInt(productIds.size()));
+    }
+
+    List<String> getSearchTerms() {
+        return searchTerms;
+    }
+
+    String getBaseUrl() {
+        return baseUrl;
+    }
+
+    int getSessionLength() {
+        return sessionLength;
+    }
+
+    long getThinkMillis() {
+        return thinkMillis;
+    }
+
+    // ========================================
+    // SETTINGS
+    // ========================================
+
+    // "browse:40,search:20" -> 40 BROWSE slots and 20 SEARCH slots to pick from
+    private void parseMix(String mix) {
+        List<Action> slots = new ArrayList<>();
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split(":");
+            Action action = Action.valueOf(pair[0].trim().toUpperCase());
+            if (action == Action.LOGIN) {
+                throw new IllegalArgumentException("login is part of every session, not of the mix");
+            }
+            for (int i = 0; i < Integer.parseInt(pair[1].trim()); i++) {
+                slots.add(action);
+            }
+        }
+        if (slots.isEmpty()) {
+            throw new IllegalArgumentException("mix has no weights: " + mix);
+        }
+        weightedActions = slots.toArray(new Action[0]);
+    }
+
+    private String setting(String key, String defaultValue) {
+        return settings.getOrDefault(key, defaultValue);
+    }
+
+    private int intSetting(String key, int defaultValue) {
+        return Integer.parseInt(setting(key, String.valueOf(defaultValue)));
+    }
+
+    // 0 -> "a", 25 -> "z", 26 -> "ba", ...
+    private static String letters(int value) {
+        StringBuilder name = new StringBuilder();
+        do {
+            name.insert(0, (char) ('a' + value % 26));
+            value /= 26;
+        } while (value > 0);
+        return name.toString();
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
@@ -0,0 +1,127 @@
+package com.register.springboot.loadtest;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * VirtualUser - One simulated customer with its own session cookie
+ * Logs in through the form (CustomLoginSuccesHandler redirects to /products),
+ * then picks requests from the mix until the session is used up, logs out and
+ * starts over.
+ */
+final class VirtualUser implements Runnable {
+
+    private final LoadTest test;
+    private final String userName;
+    private final HttpClient client;
+
+    VirtualUser(LoadTest test, String userName) {
+        this.test = test;
+        this.userName = userName;
+        this.client = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    @Override
+    public void run() {
+        while (test.isRunning()) {
+            if (!login()) {
+                pause(1000);
+                continue;
+            }
+            for (int i = 0; i < test.getSessionLength() && test.isRunning(); i++) {
+                pause(test.getThinkMillis());
+                switch (test.pickAction()) {
+                    case BROWSE:
+                        send(LoadTest.Action.BROWSE, get("/products"), 200);
+                        break;
+                    case SEARCH:
+                        List<String> terms = test.getSearchTerms();
+                        String term = terms.get(ThreadLocalRandom.current().nextInt(terms.size()));
+                        send(LoadTest.Action.SEARCH, get("/products/search?name=" + encode(term)), 200);
+                        break;
+                    case ORDER:
+                        send(LoadTest.Action.ORDER, post("/order/" + test.randomProductId(),
+                                "customerName=Load+Tester&phone=9876543210&city=Bangalore"
+                                        + "&state=Karnataka&cardNumber=1234567812345678"), 302);
+                        break;
+                    default:
+                        send(LoadTest.Action.HISTORY, get("/my-orders"), 200);
+                }
+            }
+            send(null, get("/logout"), 302);
+        }
+    }
+
+    private boolean login() {
+        return send(LoadTest.Action.LOGIN,
+                post("/login", "username=" + encode(userName) + "&password=" + encode(LoadTest.PASSWORD)),
+                302, "/products");
+    }
+
+    private boolean send(LoadTest.Action action, HttpRequest request, int expectedStatus) {
+        return send(action, request, expectedStatus, null);
+    }
+
+    // Times one request; anything but the expected status (and redirect target) is an error
+    private boolean send(LoadTest.Action action, HttpRequest request, int expectedStatus, String expectedLocation) {
+        long start = System.nanoTime();
+        boolean ok;
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            ok = response.statusCode() == expectedStatus && (expectedLocation == null
+                    || response.headers().firstValue("Location").orElse("").endsWith(expectedLocation));
+        } catch (IOException e) {
+            ok = false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        if (action != null) {
+            test.record(action, ok, System.nanoTime() - start);
+        }
+        return ok;
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(test.getBaseUrl() + path))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, String form) {
+        return HttpRequest.newBuilder(URI.create(test.getBaseUrl() + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build();
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static void pause(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
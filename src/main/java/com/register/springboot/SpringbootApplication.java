@@ -3,15 +3,17 @@ package com.register.springboot;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import com.register.springboot.repository.UserRepository;
 
 /**
  * Main entry point for the Spring Boot application.
- * Configures JPA repositories and starts the application.
+ * Configures JPA repositories, enables scheduled tasks and starts the application.
  */
 @SpringBootApplication
 @EnableJpaRepositories(basePackageClasses = UserRepository.class)
+@EnableScheduling
 public class SpringbootApplication {
 
 	/**
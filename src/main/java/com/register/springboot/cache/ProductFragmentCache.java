@@ -0,0 +1,148 @@
+package com.register.springboot.cache;
+
+import com.register.springboot.model.Product;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+import javax.annotation.PostConstruct;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ProductFragmentCache - Rendered HTML of product cards, detail blocks and the full listing
+ *
+ * Fragments come from templates/fragments/product.html and are rendered
+ * without a request, so they are the same for every user. A product's HTML is
+ * reused while the fields it shows are unchanged, so after a catalog change
+ * (every order changes a stock) only the changed product is rendered again.
+ * The full listing is kept per catalog version.
+ */
+@Component
+public class ProductFragmentCache {
+
+    private static final String TEMPLATE = "fragments/product";
+
+    @Autowired
+    private ITemplateEngine templateEngine;
+
+    // Links in the fragments are rendered without a request, so the context path comes from configuration
+    @Value("${server.servlet.context-path:}")
+    private String contextPath;
+
+    // Maximum number of products whose card and detail HTML are kept
+    @Value("${app.catalog.fragment-cache-size:1000}")
+    private int cacheSize;
+
+    private LruCache<Long, Rendered> cards;
+    private LruCache<Long, Rendered> details;
+
+    // Cards of the whole catalog, with the catalog version and product list they were rendered from
+    private volatile Rendered listing;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @PostConstruct
+    void initCache() {
+        cards = new LruCache<>(cacheSize);
+        details = new LruCache<>(cacheSize);
+    }
+
+    /**
+     * Cards of the whole catalog
+     *
+     * @param products       ProductService.getAllProducts()
+     * @param catalogVersion Catalog version read before the products were
+     */
+    public String listing(List<Product> products, long catalogVersion) {
+        Rendered cached = listing;
+        if (cached != null && cached.version == catalogVersion && cached.source == products) {
+            hits.increment();
+            return cached.html;
+        }
+        misses.increment();
+        String html = cards(products);
+        listing = new Rendered(products, catalogVersion, html);
+        return html;
+    }
+
+    /**
+     * Cards of some products, in list order (search results)
+     */
+    public String cards(List<Product> products) {
+        StringBuilder html = new StringBuilder();
+        for (Product product : products) {
+            html.append(render(cards, product, "card"));
+        }
+        return html.toString();
+    }
+
+    /**
+     * Detail block of one product
+     */
+    public String detail(Product product) {
+        return render(details, product, "detail");
+    }
+
+    /**
+     * Drop all rendered HTML (e.g. after a template change)
+     */
+    public void clear() {
+        listing = null;
+        cards.clear();
+        details.clear();
+    }
+
+    /**
+     * Hit/miss counters over listings, cards and detail blocks; evictions and size of the product caches
+     */
+    public CacheStats getStats() {
+        CacheStats cardStats = cards.stats();
+        CacheStats detailStats = details.stats();
+        return new CacheStats(hits.sum(), misses.sum(),
+                cardStats.getEvictions() + detailStats.getEvictions(),
+                cardStats.getSize() + detailStats.getSize(),
+                cardStats.getMaxSize() + detailStats.getMaxSize());
+    }
+
+    private String render(LruCache<Long, Rendered> cache, Product product, String fragment) {
+        List<Object> shown = shownFields(product);
+        Rendered cached = cache.get(product.getId());
+        if (cached != null && cached.source.equals(shown)) {
+            hits.increment();
+            return cached.html;
+        }
+        misses.increment();
+
+        Context context = new Context();
+        context.setVariable("product", product);
+        context.setVariable("contextPath", contextPath);
+        String html = templateEngine.process(TEMPLATE, Set.of(fragment), context);
+        cache.put(product.getId(), new Rendered(shown, 0, html));
+        return html;
+    }
+
+    // Every product field the fragments show; keep in sync with fragments/product.html
+    private static List<Object> shownFields(Product product) {
+        return Arrays.asList(product.getName(), product.getDescription(), product.getPrice(),
+                product.getStock(), product.getPublishDate());
+    }
+
+    // HTML and what it was rendered from (shown fields, or the listing's product list)
+    private static class Rendered {
+
+        private final Object source;
+        private final long version;
+        private final String html;
+
+        Rendered(Object source, long version, String html) {
+            this.source = source;
+            this.version = version;
+            this.html = html;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.register.springboot.component;
+
+import com.register.springboot.cache.CacheStats;
+import com.register.springboot.cache.ProductFragmentCache;
+import com.register.springboot.security.BoundedPasswordEncoder;
+import com.register.springboot.security.MyUserDetailsService;
+import com.register.springboot.service.AsyncOrderService;
+import com.register.springboot.service.OrderJournal;
+import com.register.springboot.service.ProductService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * ApplicationMetrics - Exports the application's own caches and pools to Micrometer
+ * Catalog, user and rendered-fragment caches (gets by result, evictions, size), the password
+ * hashing executor, the async order queue and the order journal backlog. Read on every scrape.
+ * The services are resolved lazily: the meter registry is created while they
+ * are still being wired, and binding must not see them half-built.
+ */
+@Component
+public class ApplicationMetrics implements MeterBinder {
+
+    private final ObjectProvider<ProductService> productService;
+    private final ObjectProvider<MyUserDetailsService> userDetailsService;
+    private final ObjectProvider<BoundedPasswordEncoder> passwordEncoder;
+    private final ObjectProvider<AsyncOrderService> asyncOrderService;
+    private final ObjectProvider<OrderJournal> orderJournal;
+    private final ObjectProvider<ProductFragmentCache> productFragments;
+
+    public ApplicationMetrics(ObjectProvider<ProductService> productService,
+            ObjectProvider<MyUserDetailsService> userDetailsService,
+            ObjectProvider<BoundedPasswordEncoder> passwordEncoder,
+            ObjectProvider<AsyncOrderService> asyncOrderService,
+            ObjectProvider<OrderJournal> orderJournal,
+            ObjectProvider<ProductFragmentCache> productFragments) {
+        this.productService = productService;
+        this.userDetailsService = userDetailsService;
+        this.passwordEncoder = passwordEncoder;
+        this.asyncOrderService = asyncOrderService;
+        this.orderJournal = orderJournal;
+        this.productFragments = productFragments;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bindCache(registry, "catalog", m -> m.productService.getObject().getCacheStats());
+        bindCache(registry, "users", m -> m.userDetailsService.getObject().getCacheStats());
+        bindCache(registry, "fragments", m -> m.productFragments.getObject().getStats());
+
+        gauge(registry, "app.hashing.active", "Password hashes running",
+                m -> m.passwordEncoder.getObject().getActiveCount());
+        gauge(registry, "app.hashing.queued", "Password hashes waiting for a thread",
+                m -> m.passwordEncoder.getObject().getQueueSize());
+        gauge(registry, "app.hashing.average.millis", "Average time of one password hash",
+                m -> m.passwordEncoder.getObject().getAverageHashMillis());
+        counter(registry, "app.hashing.completed", "Password hashes finished",
+                m -> m.passwordEncoder.getObject().getCompletedCount());
+        counter(registry, "app.hashing.rejected", "Password hashes refused because the queue was full",
+                m -> m.passwordEncoder.getObject().getRejectedCount());
+        counter(registry, "app.hashing.timed.out", "Password hashes the caller gave up waiting for",
+                m -> m.passwordEncoder.getObject().getTimedOutCount());
+
+        gauge(registry, "app.orders.async.queued", "Orders waiting for an async worker",
+                m -> m.asyncOrderService.getObject().getQueueSize());
+        gauge(registry, "app.orders.journal.backlog", "Journaled orders on disk but not yet in the database",
+                m -> m.orderJournal.getObject().getBacklog());
+    }
+
+    // Meters keep only a weak reference to their object, so they all read through this (singleton) bean
+
+    private void gauge(MeterRegistry registry, String name, String description,
+            ToDoubleFunction<ApplicationMetrics> value) {
+        Gauge.builder(name, this, value).description(description).register(registry);
+    }
+
+    private void counter(MeterRegistry registry, String name, String description,
+            ToDoubleFunction<ApplicationMetrics> value) {
+        FunctionCounter.builder(name, this, value).description(description).register(registry);
+    }
+
+    private void bindCache(MeterRegistry registry, String name, Function<ApplicationMetrics, CacheStats> stats) {
+        FunctionCounter.builder("app.cache.gets", this, m -> stats.apply(m).getHits())
+                .tag("cache", name).tag("result", "hit").register(registry);
+        FunctionCounter.builder("app.cache.gets", this, m -> stats.apply(m).getMisses())
+                .tag("cache", name).tag("result", "miss").register(registry);
+        FunctionCounter.builder("app.cache.evictions", this, m -> stats.apply(m).getEvictions())
+                .tag("cache", name).register(registry);
+        Gauge.builder("app.cache.size", this, m -> stats.apply(m).getSize())
+                .tag("cache", name).register(registry);
+    }
+}
@@ -23,12 +23,12 @@ public class DataSeeder implements CommandLineRunner {
     private com.register.springboot.repository.UserRepository userRepository;
 
     @Autowired
-    private org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder passwordEncoder;
+    private org.springframework.security.crypto.password.PasswordEncoder passwordEncoder;
 
     @Override
     public void run(String... args) throws Exception {
         try {
-            if (userRepository.countByRolesContaining("ROLE_ADMIN") == 0) {
+            if (!userRepository.existsByRoles("ROLE_ADMIN")) {
                 seedAdminUser();
             }
         } catch (Exception e) {
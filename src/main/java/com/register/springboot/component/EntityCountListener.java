@@ -0,0 +1,68 @@
+package com.register.springboot.component;
+
+import com.register.springboot.model.Order;
+import com.register.springboot.model.Product;
+import com.register.springboot.model.User;
+import com.register.springboot.service.DashboardCounters;
+import org.springframework.beans.factory.ObjectProvider;
+import javax.persistence.PostLoad;
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * EntityCountListener - JPA lifecycle hooks that keep DashboardCounters current
+ * Registered on Order, Product and User with @EntityListeners.
+ * Hibernate creates it through Spring, so it can reach the counters bean;
+ * the ObjectProvider is resolved lazily to avoid a cycle with the EntityManagerFactory.
+ */
+public class EntityCountListener {
+
+    private final ObjectProvider<DashboardCounters> counters;
+
+    public EntityCountListener(ObjectProvider<DashboardCounters> counters) {
+        this.counters = counters;
+    }
+
+    @PostPersist
+    public void onPersist(Object entity) {
+        if (entity instanceof Order) {
+            Order order = (Order) entity;
+            order.setPersistedStatus(order.getStatus());
+            counters.getObject().ordersAdded(order.getStatus(), 1);
+        } else if (entity instanceof Product) {
+            counters.getObject().productAdded(1);
+        } else if (entity instanceof User) {
+            counters.getObject().userAdded(1);
+        }
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        if (entity instanceof Order) {
+            counters.getObject().ordersAdded(((Order) entity).getPersistedStatus(), -1);
+        } else if (entity instanceof Product) {
+            counters.getObject().productAdded(-1);
+        } else if (entity instanceof User) {
+            counters.getObject().userAdded(-1);
+        }
+    }
+
+    // Remember the stored status so an update can move the order between status counts
+    @PostLoad
+    public void onLoad(Object entity) {
+        if (entity instanceof Order) {
+            Order order = (Order) entity;
+            order.setPersistedStatus(order.getStatus());
+        }
+    }
+
+    @PostUpdate
+    public void onUpdate(Object entity) {
+        if (entity instanceof Order) {
+            Order order = (Order) entity;
+            counters.getObject().orderStatusChanged(order.getPersistedStatus(), order.getStatus());
+            order.setPersistedStatus(order.getStatus());
+        }
+    }
+}
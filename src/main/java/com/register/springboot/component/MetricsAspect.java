@@ -0,0 +1,91 @@
+package com.register.springboot.component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * MetricsAspect - Times every controller handler, OrderService/ProductService
+ * method and repository call
+ * Controllers are the @Controller/@RestController classes of the controller
+ * package, not helpers that happen to sit next to them.
+ * Each produces a Micrometer timer (count, total time, max) tagged with the
+ * class, the method and the exception thrown ("none" on success):
+ * app.controller.requests, app.service.calls and app.repository.calls.
+ */
+@Aspect
+@Component
+public class MetricsAspect {
+
+    @Autowired
+    private MeterRegistry registry;
+
+    // Successful calls are the common case, so their timers are looked up once
+    // (per class, as repositories share inherited methods such as findById)
+    private final Map<String, Map<Method, Timer>> successTimers = new ConcurrentHashMap<>();
+
+    // Repository proxy class -> repository interface name
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    @Around("within(com.register.springboot.controller..*) && execution(public * *(..)) "
+            + "&& (@within(org.springframework.stereotype.Controller) "
+            + "|| @within(org.springframework.web.bind.annotation.RestController))")
+    public Object timeController(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("app.controller.requests", joinPoint.getSignature().getDeclaringType().getSimpleName(),
+                joinPoint);
+    }
+
+    @Around("within(com.register.springboot.service.OrderService) "
+            + "|| within(com.register.springboot.service.ProductService)")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("app.service.calls", joinPoint.getSignature().getDeclaringType().getSimpleName(),
+                joinPoint);
+    }
+
+    @Around("target(org.springframework.data.repository.Repository)")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("app.repository.calls", repositoryName(joinPoint.getTarget()), joinPoint);
+    }
+
+    private Object time(String name, String className, ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(registry);
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        try {
+            Object result = joinPoint.proceed();
+            sample.stop(successTimers.computeIfAbsent(className, c -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(method, m -> timer(name, className, m.getName(), "none")));
+            return result;
+        } catch (Throwable e) {
+            sample.stop(timer(name, className, method.getName(), e.getClass().getSimpleName()));
+            throw e;
+        }
+    }
+
+    private Timer timer(String name, String className, String method, String exception) {
+        return Timer.builder(name)
+                .tag("class", className)
+                .tag("method", method)
+                .tag("exception", exception)
+                .register(registry);
+    }
+
+    // Spring Data proxies implement our interface first (e.g. OrderRepository)
+    private String repositoryName(Object repository) {
+        return repositoryNames.computeIfAbsent(repository.getClass(), type -> {
+            for (Class<?> candidate : type.getInterfaces()) {
+                if (candidate.getName().startsWith("com.register.springboot.repository.")) {
+                    return candidate.getSimpleName();
+                }
+            }
+            return type.getSimpleName();
+        });
+    }
+}
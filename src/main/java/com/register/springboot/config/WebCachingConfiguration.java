@@ -0,0 +1,71 @@
+package com.register.springboot.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.WebContentInterceptor;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * WebCachingConfiguration - Cache-Control per route
+ *
+ * Responses that set no Cache-Control get "no-cache, no-store" from Spring
+ * Security, so every page is uncacheable unless it is listed here:
+ * - catalog pages: kept privately for a short time, then revalidated with their ETag
+ * - static assets: content-hashed URLs cached for a year, plain URLs revalidated on every use
+ * - JSON catalog: set by ProductApiController
+ * Pages with personal data (my orders, admin, user pages) are never listed.
+ */
+@Configuration
+public class WebCachingConfiguration implements WebMvcConfigurer {
+
+    // File name with the content hash added by spring.web.resources.chain.strategy.content,
+    // e.g. /css/site-0123456789abcdef0123456789abcdef.css
+    private static final Pattern VERSIONED_PATH = Pattern.compile(".*-[0-9a-f]{32}(\\.[^./]*)?");
+
+    // How long a browser may show a catalog page before revalidating it
+    @Value("${app.http.catalog-max-age-seconds:60}")
+    private long catalogMaxAgeSeconds;
+
+    // How long a browser may keep a static asset fetched by its content-hashed URL
+    @Value("${app.http.versioned-static-max-age-seconds:31536000}")
+    private long versionedStaticMaxAgeSeconds;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        WebContentInterceptor caching = new WebContentInterceptor();
+        caching.addCacheMapping(CacheControl.maxAge(catalogMaxAgeSeconds, TimeUnit.SECONDS).cachePrivate(),
+                "/products", "/products/**");
+        registry.addInterceptor(caching).addPathPatterns("/products", "/products/**");
+        registry.addInterceptor(staticResourceCaching());
+    }
+
+    /**
+     * Cache-Control for static assets
+     * A hashed URL changes whenever the file does, so it can be kept for a year;
+     * the same file under its plain URL may change on the next deploy.
+     */
+    private HandlerInterceptor staticResourceCaching() {
+        String versioned = CacheControl.maxAge(versionedStaticMaxAgeSeconds, TimeUnit.SECONDS).cachePublic()
+                .getHeaderValue();
+        String plain = CacheControl.noCache().getHeaderValue();
+        return new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                if (handler instanceof ResourceHttpRequestHandler) {
+                    boolean hashed = VERSIONED_PATH.matcher(request.getRequestURI()).matches();
+                    response.setHeader(HttpHeaders.CACHE_CONTROL, hashed ? versioned : plain);
+                }
+                return true;
+            }
+        };
+    }
+}
@@ -1,15 +1,39 @@
 package com.register.springboot.controller;
 
+import com.register.springboot.cache.ProductFragmentCache;
+import com.register.springboot.datasource.ReadFromPrimary;
+import com.register.springboot.model.OrderStatusSummary;
 import com.register.springboot.model.Product;
+import com.register.springboot.model.RevenueReport;
 import com.register.springboot.model.User;
 import com.register.springboot.repository.UserRepository;
+import com.register.springboot.security.MyUserDetailsService;
+import com.register.springboot.service.DashboardCounters;
+import com.register.springboot.service.OrderAnalytics;
+import com.register.springboot.service.OrderCursor;
+import com.register.springboot.service.OrderExportService;
+import com.register.springboot.service.OrderPage;
 import com.register.springboot.service.OrderService;
 import com.register.springboot.service.ProductService;
+import com.register.springboot.service.Userservice;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Locale;
 
 /**
  * AdminController - Handles admin operations
@@ -28,19 +52,48 @@ public class AdminController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private Userservice userservice;
+
+    @Autowired
+    private MyUserDetailsService userDetailsService;
+
+    @Autowired
+    private DashboardCounters dashboardCounters;
+
+    @Autowired
+    private OrderExportService orderExportService;
+
+    @Autowired
+    private ProductFragmentCache productFragments;
+
+    @Autowired
+    private OrderAnalytics orderAnalytics;
+
     // ========================================
     // DASHBOARD
     // ========================================
 
     /**
      * Admin dashboard with statistics
+     * Users, products and orders per status from in-memory counters (no COUNT queries),
+     * revenue of the last 30 days from the analytics columns
      * URL: GET /admin/dashboard
      */
     @GetMapping("/dashboard")
     public String dashboard(Model model) {
-        model.addAttribute("totalUsers", userRepository.count());
-        model.addAttribute("totalProducts", productService.getProductCount());
-        model.addAttribute("totalOrders", orderService.getOrderCount());
+        OrderStatusSummary orderSummary = dashboardCounters.getOrderStatusSummary();
+        LocalDate since = LocalDate.now().minusDays(29);
+        model.addAttribute("totalUsers", dashboardCounters.getUserCount());
+        model.addAttribute("totalProducts", dashboardCounters.getProductCount());
+        model.addAttribute("totalOrders", orderSummary.getTotal());
+        model.addAttribute("ordersByStatus", orderSummary.getCounts());
+        model.addAttribute("catalogCache", productService.getCacheStats());
+        model.addAttribute("fragmentCache", productFragments.getStats());
+        model.addAttribute("revenueByProduct",
+                orderAnalytics.report(OrderAnalytics.Grouping.PRODUCT, since, null, "ACCEPTED", 5));
+        model.addAttribute("revenueByState",
+                orderAnalytics.report(OrderAnalytics.Grouping.STATE, since, null, "ACCEPTED", 5));
         return "admin/dashboard";
     }
 
@@ -129,6 +182,7 @@ public class AdminController {
      * URL: GET /admin/users
      */
     @GetMapping("/users")
+    @ReadFromPrimary
     public String manageUsers(Model model) {
         model.addAttribute("users", userRepository.findAll());
         return "admin/users";
@@ -141,7 +195,7 @@ public class AdminController {
     @GetMapping("/users/delete/{id}")
     public String deleteUser(@PathVariable Integer id,
             RedirectAttributes redirectAttributes) {
-        userRepository.deleteById(id);
+        userservice.deleteUser(id).ifPresent(user -> userDetailsService.evict(user.getUserName()));
         redirectAttributes.addFlashAttribute("success", "User deleted!");
         return "redirect:/admin/users";
     }
@@ -151,15 +205,69 @@ public class AdminController {
     // ========================================
 
     /**
-     * List all orders
-     * URL: GET /admin/orders
+     * List orders one page at a time, newest first
+     * URL: GET /admin/orders?after={cursor}&before={cursor}&size={n}
      */
     @GetMapping("/orders")
-    public String manageOrders(Model model) {
-        model.addAttribute("orders", orderService.getAllOrders());
+    public String manageOrders(@RequestParam(required = false) String after,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) Integer size,
+            Model model) {
+        OrderPage page = orderService.getOrderPage(OrderCursor.parse(after), OrderCursor.parse(before), size);
+        model.addAttribute("orders", page.getOrders());
+        model.addAttribute("previousCursor", page.getPreviousCursor());
+        model.addAttribute("nextCursor", page.getNextCursor());
+        model.addAttribute("size", size);
         return "admin/orders";
     }
 
+    /**
+     * Order count per status as JSON (same counters as the dashboard)
+     * URL: GET /admin/orders/status
+     */
+    @GetMapping("/orders/status")
+    @ResponseBody
+    public OrderStatusSummary orderStatusSummary() {
+        return dashboardCounters.getOrderStatusSummary();
+    }
+
+    /**
+     * Download orders as CSV or NDJSON, streamed while they are read
+     * from/to are order dates (both inclusive); every parameter is optional.
+     * Written on the request thread, so a long export is not cut off by the async request timeout.
+     * URL: GET /admin/orders/export?format=csv|ndjson&from=2024-01-01&to=2024-01-31&status=ACCEPTED
+     */
+    @GetMapping("/orders/export")
+    public void exportOrders(@RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String status,
+            HttpServletResponse response) throws IOException {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"ndjson".equalsIgnoreCase(format)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "format must be csv or ndjson");
+        }
+        if (status != null && !OrderStatusSummary.STATUSES.contains(status)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "status must be one of " + OrderStatusSummary.STATUSES);
+        }
+        LocalDateTime fromTime = from != null ? from.atStartOfDay() : null;
+        LocalDateTime toTime = to != null ? to.plusDays(1).atStartOfDay() : null;
+
+        // No Content-Length: the body goes out in chunks as the buffer fills
+        response.setContentType(csv ? "text/csv" : "application/x-ndjson");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"orders-" + LocalDate.now() + (csv ? ".csv" : ".ndjson") + "\"");
+        Writer out = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8),
+                64 * 1024);
+        if (csv) {
+            orderExportService.exportCsv(fromTime, toTime, status, out);
+        } else {
+            orderExportService.exportNdjson(fromTime, toTime, status, out);
+        }
+    }
+
     /**
      * Update order status
      * URL: POST /admin/orders/{id}/status
@@ -172,4 +280,34 @@ public class AdminController {
         redirectAttributes.addFlashAttribute("success", "Order status updated!");
         return "redirect:/admin/orders";
     }
+
+    // ========================================
+    // ANALYTICS
+    // ========================================
+
+    /**
+     * Orders, units and revenue per group, from the in-memory analytics columns (no SQL)
+     * from/to are order dates (both inclusive); only ACCEPTED orders unless another status is given.
+     * URL: GET /admin/analytics/revenue?by=product|customer|state|city|day&from=2024-01-01&to=2024-01-31&status=ACCEPTED&limit=20
+     */
+    @GetMapping("/analytics/revenue")
+    @ResponseBody
+    public RevenueReport revenueReport(@RequestParam(defaultValue = "product") String by,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "ACCEPTED") String status,
+            @RequestParam(defaultValue = "20") int limit) {
+        OrderAnalytics.Grouping grouping;
+        try {
+            grouping = OrderAnalytics.Grouping.valueOf(by.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "by must be one of product, customer, state, city, day");
+        }
+        if (!OrderStatusSummary.STATUSES.contains(status)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "status must be one of " + OrderStatusSummary.STATUSES);
+        }
+        return orderAnalytics.report(grouping, from, to, status, Math.max(0, limit));
+    }
 }
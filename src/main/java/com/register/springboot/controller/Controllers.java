@@ -10,19 +10,26 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 
+import com.register.springboot.datasource.ReadFromPrimary;
 import com.register.springboot.model.User;
 import com.register.springboot.repository.UserRepository;
+import com.register.springboot.security.MyUserDetailsService;
+import com.register.springboot.security.PasswordHashingBusyException;
 import com.register.springboot.service.Userservice;
 
 /**
  * Controller class for handling general user operations and page navigation.
+ * User forms are read and written back, so all reads go to the primary database.
  */
 @Controller
+@ReadFromPrimary
 public class Controllers {
 	@Autowired
 	UserRepository userrepo;
 	@Autowired
 	Userservice userservice;
+	@Autowired
+	MyUserDetailsService userDetailsService;
 
 	/**
 	 * Displays the application home page.
@@ -97,14 +104,18 @@ public class Controllers {
 	 */
 	@PostMapping("add")
 	public String addUser(@Valid User user, BindingResult result, Model model) {
-		if (result.hasErrors()) {
-			return "register";
-		} else if (userservice.isUserAlreadyPresent(user)) {
-			model.addAttribute("message", "user already Exists");
-		} else if (userservice.Age(user)) {
-			model.addAttribute("message", "user registered succesfully");
-		} else {
-			model.addAttribute("message", "age should be greater than 18");
+		try {
+			if (result.hasErrors()) {
+				return "register";
+			} else if (userservice.isUserAlreadyPresent(user)) {
+				model.addAttribute("message", "user already Exists");
+			} else if (userservice.Age(user)) {
+				model.addAttribute("message", "user registered succesfully");
+			} else {
+				model.addAttribute("message", "age should be greater than 18");
+			}
+		} catch (PasswordHashingBusyException e) {
+			model.addAttribute("message", "server busy, please try again");
 		}
 		return "register";
 
@@ -122,12 +133,21 @@ public class Controllers {
 	@PostMapping("update/{id}")
 	public String updateUser(@PathVariable("id") int id, @Valid User user, BindingResult result, Model model) {
 		String page = "";
+		boolean saved;
+		try {
+			saved = !result.hasErrors() && userservice.Age(user);
+		} catch (PasswordHashingBusyException e) {
+			model.addAttribute("message", "server busy, please try again");
+			return "update-user";
+		}
 		if (result.hasErrors()) {
 			page = "update-user";
-		} else if (!userservice.Age(user)) {
+		} else if (!saved) {
 			model.addAttribute("message", "age should be greater than 18");
 			page = "update-user";
 		} else {
+			// The username itself may have changed, so drop every cached user
+			userDetailsService.evictAll();
 			model.addAttribute("message", "user updated succesfully");
 			model.addAttribute("Users", userrepo.findAll());
 			page = "index";
@@ -158,8 +178,8 @@ public class Controllers {
 	 */
 	@GetMapping("delete/{id}")
 	public String deleteUser(@PathVariable("id") int id, Model model) {
-		User user = userrepo.findById(id).orElseThrow();
-		userrepo.delete(user);
+		User user = userservice.deleteUser(id).orElseThrow();
+		userDetailsService.evict(user.getUserName());
 		model.addAttribute("Users", userrepo.findAll());
 		return "index";
 	}
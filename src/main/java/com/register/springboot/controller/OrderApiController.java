@@ -0,0 +1,54 @@
+package com.register.springboot.controller;
+
+import com.register.springboot.model.BatchOrderLine;
+import com.register.springboot.model.BatchOrderResult;
+import com.register.springboot.model.User;
+import com.register.springboot.security.MyUserDetailsService;
+import com.register.springboot.service.OrderService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+/**
+ * OrderApiController - JSON API for partners placing orders in bulk
+ */
+@RestController
+@RequestMapping("/api/orders")
+public class OrderApiController {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private MyUserDetailsService userDetailsService;
+
+    // Maximum number of lines accepted in one request
+    @Value("${app.orders.max-batch-size:1000}")
+    private int maxBatchSize;
+
+    /**
+     * Place many orders at once
+     * URL: POST /api/orders/batch (JSON array of order lines)
+     * Returns one result per line, in request order; 400 for an empty or
+     * oversized batch or a null line
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchOrderResult>> placeOrders(@RequestBody List<BatchOrderLine> lines,
+            Authentication authentication) {
+        if (lines.isEmpty() || lines.size() > maxBatchSize || lines.contains(null)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        User user = userDetailsService.getCurrentUser(authentication);
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        return ResponseEntity.ok(orderService.placeOrders(lines, user));
+    }
+
+}
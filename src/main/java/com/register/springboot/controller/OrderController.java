@@ -1,17 +1,23 @@
 package com.register.springboot.controller;
 
 import com.register.springboot.model.Order;
+import com.register.springboot.model.OrderHistoryItem;
 import com.register.springboot.model.Product;
 import com.register.springboot.model.User;
-import com.register.springboot.repository.UserRepository;
+import com.register.springboot.security.MyUserDetailsService;
+import com.register.springboot.service.AsyncOrderService;
+import com.register.springboot.service.OrderJournal;
 import com.register.springboot.service.OrderService;
 import com.register.springboot.service.ProductService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * OrderController - Handles order placement and viewing
@@ -27,7 +33,19 @@ public class OrderController {
     private ProductService productService;
 
     @Autowired
-    private UserRepository userRepository;
+    private MyUserDetailsService userDetailsService;
+
+    @Autowired
+    private AsyncOrderService asyncOrderService;
+
+    @Autowired
+    private OrderJournal orderJournal;
+
+    // Only what the order form shows may be bound; status, reason and tracking id are set here
+    @InitBinder("order")
+    void orderFields(WebDataBinder binder) {
+        binder.setAllowedFields("quantity", "customerName", "phone", "city", "state", "cardNumber");
+    }
 
     /**
      * Show order form for a product
@@ -55,8 +73,7 @@ public class OrderController {
             RedirectAttributes redirectAttributes) {
 
         // Get current logged-in user
-        String username = authentication.getName();
-        User user = userRepository.findByUserName(username);
+        User user = userDetailsService.getCurrentUser(authentication);
 
         if (user == null) {
             redirectAttributes.addFlashAttribute("error", "User not found. Please login again.");
@@ -70,6 +87,35 @@ public class OrderController {
             return "redirect:/order/" + productId;
         }
 
+        // Journal mode: answer once the order is on disk; async mode: once it is queued
+        if (orderJournal.isEnabled() || asyncOrderService.isEnabled()) {
+            Product product = productService.getProductById(productId);
+            if (product == null) {
+                redirectAttributes.addFlashAttribute("error", "Product not found.");
+                return "redirect:/products";
+            }
+            String trackingId;
+            if (orderJournal.isEnabled()) {
+                try {
+                    trackingId = orderJournal.submit(order, user, product);
+                } catch (IllegalStateException e) {
+                    // Journaled but not synced - it may still be stored, so it must not be placed again
+                    redirectAttributes.addFlashAttribute("error",
+                            "Your order was received but is not confirmed yet. Please do not place it again; "
+                                    + "it will appear in My Orders once it is stored.");
+                    return "redirect:/my-orders";
+                }
+            } else {
+                trackingId = asyncOrderService.submit(order, user, product);
+            }
+            if (trackingId != null) {
+                redirectAttributes.addFlashAttribute("success",
+                        "Order received! Tracking ID: " + trackingId + ". It will be confirmed shortly.");
+                return "redirect:/my-orders";
+            }
+            // Journal or queue full - fall back to placing it right now
+        }
+
         // Place order
         Order savedOrder = orderService.placeOrder(order, user, productId);
 
@@ -83,7 +129,9 @@ public class OrderController {
                     "Order placed successfully! Order ID: " + savedOrder.getId());
         } else {
             redirectAttributes.addFlashAttribute("error",
-                    "Order rejected due to invalid details.");
+                    savedOrder.getRejectionReason() != null
+                            ? "Order rejected: " + savedOrder.getRejectionReason()
+                            : "Order rejected due to invalid details.");
         }
 
         return "redirect:/my-orders";
@@ -95,12 +143,16 @@ public class OrderController {
      */
     @GetMapping("/my-orders")
     public String myOrders(Authentication authentication, Model model) {
-        String username = authentication.getName();
-        User user = userRepository.findByUserName(username);
+        User user = userDetailsService.getCurrentUser(authentication);
 
         if (user != null) {
-            model.addAttribute("orders", orderService.getOrdersByUser(user));
+            // Journaled and queued (async) orders first - they are the newest
+            List<OrderHistoryItem> orders = new ArrayList<>(orderJournal.getPendingOrders(user));
+            orders.addAll(asyncOrderService.getPendingOrders(user));
+            orders.addAll(orderService.getOrderHistory(user));
+            model.addAttribute("orders", orders);
         }
         return "my-orders"; // my-orders.html
     }
+
 }
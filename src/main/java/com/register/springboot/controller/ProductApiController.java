@@ -0,0 +1,130 @@
+package com.register.springboot.controller;
+
+import com.register.springboot.model.Product;
+import com.register.springboot.service.ProductService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * ProductApiController - JSON version of ProductController for API clients
+ *
+ * Every response carries the strong catalog ETag of ProductService, and a
+ * request whose If-None-Match still matches gets 304 without touching the
+ * catalog. ?fields=id,name,price limits the fields of each product.
+ */
+@RestController
+@RequestMapping("/api/products")
+public class ProductApiController {
+
+    // Product fields a client can ask for, in output order
+    private static final Map<String, Function<Product, Object>> FIELDS = new LinkedHashMap<>();
+
+    static {
+        FIELDS.put("id", Product::getId);
+        FIELDS.put("name", Product::getName);
+        FIELDS.put("description", Product::getDescription);
+        FIELDS.put("price", Product::getPrice);
+        FIELDS.put("stock", Product::getStock);
+        FIELDS.put("publishDate", Product::getPublishDate);
+        FIELDS.put("createdAt", Product::getCreatedAt);
+    }
+
+    // Clients may keep a copy but must revalidate it (cheap thanks to the ETag)
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    @Autowired
+    private ProductService productService;
+
+    /**
+     * All products
+     * URL: GET /api/products?fields=id,name
+     */
+    @GetMapping
+    public ResponseEntity<List<Map<String, Object>>> listProducts(@RequestParam(required = false) String fields,
+            WebRequest request) {
+        Map<String, Function<Product, Object>> selected = select(fields);
+        return catalogResponse(request, () -> render(productService.getAllProducts(), selected));
+    }
+
+    /**
+     * Single product (404 if unknown)
+     * URL: GET /api/products/{id}?fields=id,name
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> viewProduct(@PathVariable Long id,
+            @RequestParam(required = false) String fields, WebRequest request) {
+        Map<String, Function<Product, Object>> selected = select(fields);
+        return catalogResponse(request, () -> {
+            Product product = productService.getProductById(id);
+            if (product == null) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No product " + id);
+            }
+            return render(product, selected);
+        });
+    }
+
+    /**
+     * Search by name and description, best matches first (same rules as /products/search)
+     * URL: GET /api/products/search?name=xyz&fields=id,name
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<Map<String, Object>>> searchProducts(@RequestParam String name,
+            @RequestParam(required = false) String fields, WebRequest request) {
+        Map<String, Function<Product, Object>> selected = select(fields);
+        return catalogResponse(request, () -> render(productService.searchProducts(name), selected));
+    }
+
+    // 304 if the client's ETag is the current one, else 200 with the body
+    private <T> ResponseEntity<T> catalogResponse(WebRequest request, Supplier<T> body) {
+        if (request.checkNotModified(productService.getCatalogETag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).build();
+        }
+        // checkNotModified has already set the ETag header
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(body.get());
+    }
+
+    // Requested fields and their getters, in request order; all fields if none are given
+    private static Map<String, Function<Product, Object>> select(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return FIELDS;
+        }
+        Map<String, Function<Product, Object>> selected = new LinkedHashMap<>();
+        for (String name : fields.trim().split("\\s*,\\s*")) {
+            Function<Product, Object> getter = FIELDS.get(name);
+            if (getter == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Unknown field " + name + "; known fields: " + FIELDS.keySet());
+            }
+            selected.put(name, getter);
+        }
+        return selected;
+    }
+
+    private static List<Map<String, Object>> render(List<Product> products,
+            Map<String, Function<Product, Object>> selected) {
+        List<Map<String, Object>> rendered = new ArrayList<>(products.size());
+        for (Product product : products) {
+            rendered.add(render(product, selected));
+        }
+        return rendered;
+    }
+
+    private static Map<String, Object> render(Product product, Map<String, Function<Product, Object>> selected) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        for (Map.Entry<String, Function<Product, Object>> field : selected.entrySet()) {
+            fields.put(field.getKey(), field.getValue().apply(product));
+        }
+        return fields;
+    }
+}
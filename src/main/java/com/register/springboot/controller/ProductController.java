@@ -1,15 +1,23 @@
 package com.register.springboot.controller;
 
+import com.register.springboot.cache.ProductFragmentCache;
 import com.register.springboot.model.Product;
 import com.register.springboot.service.ProductService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import java.util.List;
 
 /**
  * ProductController - Handles product viewing for users
  * Users can browse and view magazine details
+ *
+ * The pages show nothing but the catalog, so they carry the catalog ETag and
+ * a browser revalidating an unchanged page gets 304 without a render
+ * (their Cache-Control is set in WebCachingConfiguration). The product HTML
+ * itself comes pre-rendered from ProductFragmentCache.
  */
 @Controller
 @RequestMapping("/products")
@@ -18,13 +26,22 @@ public class ProductController {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ProductFragmentCache productFragments;
+
     /**
      * Display list of all products/magazines
      * URL: GET /products
      */
     @GetMapping
-    public String listProducts(Model model) {
-        model.addAttribute("products", productService.getAllProducts());
+    public String listProducts(Model model, WebRequest request) {
+        if (request.checkNotModified(productService.getCatalogETag())) {
+            return null;
+        }
+        long catalogVersion = productService.getCatalogVersion();
+        List<Product> products = productService.getAllProducts();
+        model.addAttribute("products", products);
+        model.addAttribute("productCards", productFragments.listing(products, catalogVersion));
         return "products"; // products.html
     }
 
@@ -33,22 +50,31 @@ public class ProductController {
      * URL: GET /products/{id}
      */
     @GetMapping("/{id}")
-    public String viewProduct(@PathVariable Long id, Model model) {
+    public String viewProduct(@PathVariable Long id, Model model, WebRequest request) {
+        if (request.checkNotModified(productService.getCatalogETag())) {
+            return null;
+        }
         Product product = productService.getProductById(id);
         if (product == null) {
             return "redirect:/products";
         }
         model.addAttribute("product", product);
+        model.addAttribute("productDetail", productFragments.detail(product));
         return "product-detail"; // product-detail.html
     }
 
     /**
-     * Search products by name
+     * Search products by name and description (all words, prefixes allowed)
      * URL: GET /products/search?name=xyz
      */
     @GetMapping("/search")
-    public String searchProducts(@RequestParam String name, Model model) {
-        model.addAttribute("products", productService.searchProducts(name));
+    public String searchProducts(@RequestParam String name, Model model, WebRequest request) {
+        if (request.checkNotModified(productService.getCatalogETag())) {
+            return null;
+        }
+        List<Product> products = productService.searchProducts(name);
+        model.addAttribute("products", products);
+        model.addAttribute("productCards", productFragments.cards(products));
         model.addAttribute("searchQuery", name);
         return "products";
     }
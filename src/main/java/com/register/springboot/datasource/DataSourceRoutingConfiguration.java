@@ -0,0 +1,104 @@
+package com.register.springboot.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+
+/**
+ * DataSourceRoutingConfiguration - Primary and replica pools behind one routing DataSource
+ * Active with app.datasource.replica.enabled=true; otherwise Spring Boot's
+ * single DataSource (spring.datasource.*) is used unchanged.
+ * The two pools are not beans: Spring Boot initializes every DataSource bean
+ * against the primary one, which would be circular here.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class DataSourceRoutingConfiguration implements DisposableBean {
+
+    @Autowired
+    private DataSourceProperties properties;
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${app.datasource.replica.url}")
+    private String replicaUrl;
+
+    @Value("${app.datasource.replica.username:}")
+    private String replicaUsername;
+
+    @Value("${app.datasource.replica.password:}")
+    private String replicaPassword;
+
+    @Value("${app.datasource.replica.max-lag-ms:2000}")
+    private long maxLagMillis;
+
+    private HikariDataSource primary;
+    private HikariDataSource replica;
+
+    @PostConstruct
+    void createPools() {
+        Binder binder = Binder.get(environment);
+
+        // Primary pool, configured like Spring Boot's (spring.datasource.*)
+        primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+
+        // Replica pool (app.datasource.replica.url etc.; pool settings under .hikari)
+        replica = new HikariDataSource();
+        replica.setJdbcUrl(replicaUrl);
+        replica.setUsername(replicaUsername.isEmpty() ? properties.determineUsername() : replicaUsername);
+        replica.setPassword(replicaPassword.isEmpty() ? properties.determinePassword() : replicaPassword);
+        replica.setDriverClassName(properties.determineDriverClassName());
+        binder.bind("app.datasource.replica.hikari", Bindable.ofInstance(replica));
+        replica.setReadOnly(true);
+        replica.setPoolName("replica");
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor() {
+        return new ReplicaLagMonitor(primary, replica, maxLagMillis);
+    }
+
+    /** The DataSource JPA, JdbcTemplate and the transaction manager use */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaLagMonitor replicaLagMonitor) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, replica, replicaLagMonitor);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    /** hikaricp.* meters for both pools (tagged pool=primary / pool=replica) */
+    @Bean
+    public MeterBinder connectionPoolMetrics() {
+        return registry -> {
+            for (HikariDataSource pool : new HikariDataSource[] { primary, replica }) {
+                if (pool.getMetricsTrackerFactory() == null) {
+                    pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+                }
+            }
+        };
+    }
+
+    @Override
+    public void destroy() {
+        replica.close();
+        primary.close();
+    }
+}
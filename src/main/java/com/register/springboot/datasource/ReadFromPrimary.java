@@ -0,0 +1,18 @@
+package com.register.springboot.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a bean method (or every method of a class) whose reads must see the
+ * latest committed data, so they never go to the replica
+ * Only applies to calls through the Spring proxy, like @Transactional.
+ */
+@Target({ ElementType.METHOD, ElementType.TYPE })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReadFromPrimary {
+}
@@ -0,0 +1,25 @@
+package com.register.springboot.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * ReadFromPrimaryAspect - Runs @ReadFromPrimary methods inside ReplicaRouting.onPrimary
+ */
+@Aspect
+@Component
+public class ReadFromPrimaryAspect {
+
+    @Around("@annotation(com.register.springboot.datasource.ReadFromPrimary) "
+            + "|| @within(com.register.springboot.datasource.ReadFromPrimary)")
+    public Object onPrimary(ProceedingJoinPoint joinPoint) throws Throwable {
+        ReplicaRouting.enter();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ReplicaRouting.exit();
+        }
+    }
+}
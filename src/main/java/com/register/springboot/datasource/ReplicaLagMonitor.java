@@ -0,0 +1,83 @@
+package com.register.springboot.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * ReplicaLagMonitor - Decides whether the replica is fresh enough to serve reads
+ * The primary stores a heartbeat timestamp every heartbeat-ms; replication
+ * copies it to the replica. Lag = now - the heartbeat the replica has. While
+ * the lag is above max-lag-ms, or the replica cannot be reached, all reads go
+ * to the primary. Until the first successful check the replica is not used.
+ * The replica_heartbeat table comes from the V3 migration.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final long maxLagMillis;
+
+    private volatile long lagMillis = Long.MAX_VALUE;
+    private volatile boolean usable;
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, long maxLagMillis) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.maxLagMillis = maxLagMillis;
+    }
+
+    /**
+     * Writes a heartbeat on the primary, then measures how far behind the replica is
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.replica.heartbeat-ms:1000}")
+    public void check() {
+        long now = System.currentTimeMillis();
+        try {
+            if (primary.update("update replica_heartbeat set beat_at = ? where id = 1", now) == 0) {
+                primary.update("insert into replica_heartbeat (id, beat_at) values (1, ?)", now);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not write the replica heartbeat: {}", e.getMessage());
+        }
+
+        try {
+            List<Long> beats = replica.queryForList("select beat_at from replica_heartbeat where id = 1", Long.class);
+            lagMillis = beats.isEmpty() ? Long.MAX_VALUE : Math.max(0, now - beats.get(0));
+        } catch (RuntimeException e) {
+            lagMillis = Long.MAX_VALUE;
+        }
+        boolean wasUsable = usable;
+        usable = lagMillis <= maxLagMillis;
+        if (wasUsable != usable) {
+            log.warn(usable ? "Replica back in use (lag {} ms)" : "Replica not used: lag {} ms above {} ms",
+                    lagMillis == Long.MAX_VALUE ? "unknown" : lagMillis, maxLagMillis);
+        }
+    }
+
+    /**
+     * The replica failed a connection; stop using it until the next good check
+     */
+    public void markUnavailable() {
+        lagMillis = Long.MAX_VALUE;
+        usable = false;
+    }
+
+    public boolean isReplicaUsable() {
+        return usable;
+    }
+
+    /** Last measured lag in milliseconds (Long.MAX_VALUE if unknown) */
+    public long getLagMillis() {
+        return lagMillis;
+    }
+
+    public long getMaxLagMillis() {
+        return maxLagMillis;
+    }
+}
@@ -0,0 +1,54 @@
+package com.register.springboot.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * ReplicaRouting - Lets code pin its reads to the primary database
+ * Read-only transactions normally go to the replica (when one is configured);
+ * inside {@link #onPrimary(Supplier)} they go to the primary instead, e.g. to
+ * read data this user has just written. Without a replica this is a no-op.
+ */
+public final class ReplicaRouting {
+
+    // Nesting depth of onPrimary calls on this thread
+    private static final ThreadLocal<int[]> PRIMARY_DEPTH = ThreadLocal.withInitial(() -> new int[1]);
+
+    private ReplicaRouting() {
+    }
+
+    /**
+     * Runs the work with every query on the primary
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        enter();
+        try {
+            return work.get();
+        } finally {
+            exit();
+        }
+    }
+
+    /**
+     * Runs the work on the primary only if it asks for it (fresh reads), else as usual
+     */
+    public static <T> T onPrimaryIf(boolean primary, Supplier<T> work) {
+        return primary ? onPrimary(work) : work.get();
+    }
+
+    // Every enter must be paired with an exit in a finally block
+
+    static void enter() {
+        PRIMARY_DEPTH.get()[0]++;
+    }
+
+    static void exit() {
+        PRIMARY_DEPTH.get()[0]--;
+    }
+
+    /**
+     * True while the current thread is inside onPrimary
+     */
+    public static boolean isPrimaryForced() {
+        return PRIMARY_DEPTH.get()[0] > 0;
+    }
+}
@@ -0,0 +1,37 @@
+package com.register.springboot.model;
+
+/**
+ * BatchOrderResult - Outcome of one line of a bulk order request
+ * orderId is null when nothing was stored (e.g. unknown product)
+ */
+public class BatchOrderResult {
+
+    private final int line;
+    private final Long orderId;
+    private final String status;
+    private final String message;
+
+    public BatchOrderResult(int line, Long orderId, String status, String message) {
+        this.line = line;
+        this.orderId = orderId;
+        this.status = status;
+        this.message = message;
+    }
+
+    // Getters
+    public int getLine() {
+        return line;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
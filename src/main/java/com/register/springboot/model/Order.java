@@ -1,5 +1,6 @@
 package com.register.springboot.model;
 
+import com.register.springboot.component.EntityCountListener;
 import javax.persistence.*;
 import java.time.LocalDateTime;
 
@@ -9,6 +10,7 @@ import java.time.LocalDateTime;
  * Has relationships to User and Product
  */
 @Entity
+@EntityListeners(EntityCountListener.class)
 @Table(name = "orders")
 public class Order {
 
@@ -16,13 +18,13 @@ public class Order {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    // Many Orders belong to One User
-    @ManyToOne
+    // Many Orders belong to One User (loaded only when accessed)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    // Many Orders can reference One Product
-    @ManyToOne
+    // Many Orders can reference One Product (loaded only when accessed)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_id", nullable = false)
     private Product product;
 
@@ -48,6 +50,22 @@ public class Order {
     @Column(name = "order_date")
     private LocalDateTime orderDate;
 
+    // Why the order was rejected
+    @Column(name = "rejection_reason", length = 500)
+    private String rejectionReason;
+
+    // Id the customer was given when the order was acknowledged before it was stored (async queue)
+    @Column(name = "tracking_id", length = 64)
+    private String trackingId;
+
+    // Status as last read from / written to the database (for dashboard counters)
+    @Transient
+    private String persistedStatus;
+
+    // Bitmask from OrderValidator, null until validated (reset when a checked field changes)
+    @Transient
+    private Integer validationErrors;
+
     // Default Constructor
     public Order() {
         this.orderDate = LocalDateTime.now();
@@ -102,6 +120,7 @@ public class Order {
 
     public void setCustomerName(String customerName) {
         this.customerName = customerName;
+        this.validationErrors = null;
     }
 
     public String getPhone() {
@@ -110,6 +129,7 @@ public class Order {
 
     public void setPhone(String phone) {
         this.phone = phone;
+        this.validationErrors = null;
     }
 
     public String getCity() {
@@ -118,6 +138,7 @@ public class Order {
 
     public void setCity(String city) {
         this.city = city;
+        this.validationErrors = null;
     }
 
     public String getState() {
@@ -126,6 +147,7 @@ public class Order {
 
     public void setState(String state) {
         this.state = state;
+        this.validationErrors = null;
     }
 
     public String getCardNumber() {
@@ -134,6 +156,7 @@ public class Order {
 
     public void setCardNumber(String cardNumber) {
         this.cardNumber = cardNumber;
+        this.validationErrors = null;
     }
 
     public String getStatus() {
@@ -152,6 +175,39 @@ public class Order {
         this.orderDate = orderDate;
     }
 
+    public String getRejectionReason() {
+        return rejectionReason;
+    }
+
+    public void setRejectionReason(String rejectionReason) {
+        this.rejectionReason = rejectionReason;
+    }
+
+    public String getTrackingId() {
+        return trackingId;
+    }
+
+    public void setTrackingId(String trackingId) {
+        this.trackingId = trackingId;
+    }
+
+    public String getPersistedStatus() {
+        return persistedStatus;
+    }
+
+    public void setPersistedStatus(String persistedStatus) {
+        this.persistedStatus = persistedStatus;
+    }
+
+    public Integer getValidationErrors() {
+        return validationErrors;
+    }
+
+    // Deliberately not a setter, so form binding can never mark an order as validated
+    public void recordValidationErrors(int validationErrors) {
+        this.validationErrors = validationErrors;
+    }
+
     @Override
     public String toString() {
         return "Order{" +
@@ -0,0 +1,93 @@
+package com.register.springboot.model;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import java.time.LocalDateTime;
+
+/**
+ * OrderExportRow - One order as written by the order export
+ * Not an entity: mapped straight from a JDBC row, so an export never fills
+ * the persistence context. Phone and card number are left out.
+ */
+@JsonPropertyOrder({ "id", "orderDate", "status", "userId", "userName", "productId", "productName",
+        "quantity", "totalPrice", "customerName", "city", "state" })
+public class OrderExportRow {
+
+    private final long id;
+    private final LocalDateTime orderDate;
+    private final String status;
+    private final Integer userId;
+    private final String userName;
+    private final Long productId;
+    private final String productName;
+    private final Integer quantity;
+    private final Double totalPrice;
+    private final String customerName;
+    private final String city;
+    private final String state;
+
+    public OrderExportRow(long id, LocalDateTime orderDate, String status,
+            Integer userId, String userName, Long productId, String productName,
+            Integer quantity, Double totalPrice, String customerName, String city, String state) {
+        this.id = id;
+        this.orderDate = orderDate;
+        this.status = status;
+        this.userId = userId;
+        this.userName = userName;
+        this.productId = productId;
+        this.productName = productName;
+        this.quantity = quantity;
+        this.totalPrice = totalPrice;
+        this.customerName = customerName;
+        this.city = city;
+        this.state = state;
+    }
+
+    // Getters
+    public long getId() {
+        return id;
+    }
+
+    public LocalDateTime getOrderDate() {
+        return orderDate;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public Double getTotalPrice() {
+        return totalPrice;
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public String getState() {
+        return state;
+    }
+}
@@ -0,0 +1,82 @@
+package com.register.springboot.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * OrderFact - The fields of an order kept by the analytics engine (OrderAnalytics)
+ * Read from a JDBC row at startup and taken from each newly placed order
+ * after that. Not an entity.
+ */
+public class OrderFact {
+
+    private final long id;
+    private final Long productId;
+    private final Integer userId;
+    private final Integer quantity;
+    private final Double totalPrice;
+    private final String status;
+    private final LocalDateTime orderDate;
+    private final String state;
+    private final String city;
+
+    public OrderFact(long id, Long productId, Integer userId, Integer quantity, Double totalPrice,
+            String status, LocalDateTime orderDate, String state, String city) {
+        this.id = id;
+        this.productId = productId;
+        this.userId = userId;
+        this.quantity = quantity;
+        this.totalPrice = totalPrice;
+        this.status = status;
+        this.orderDate = orderDate;
+        this.state = state;
+        this.city = city;
+    }
+
+    /**
+     * Fact of a saved order (id set, user and product at least referenced)
+     */
+    public static OrderFact of(Order order) {
+        return new OrderFact(order.getId(),
+                order.getProduct() != null ? order.getProduct().getId() : null,
+                order.getUser() != null ? order.getUser().getId() : null,
+                order.getQuantity(), order.getTotalPrice(), order.getStatus(), order.getOrderDate(),
+                order.getState(), order.getCity());
+    }
+
+    // Getters
+    public long getId() {
+        return id;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public Double getTotalPrice() {
+        return totalPrice;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getOrderDate() {
+        return orderDate;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public String getCity() {
+        return city;
+    }
+}
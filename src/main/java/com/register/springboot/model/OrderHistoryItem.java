@@ -0,0 +1,62 @@
+package com.register.springboot.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * OrderHistoryItem - Read-only row of a user's order history
+ * Not an entity: filled straight from a JPQL constructor expression
+ * so the page needs a single joined query and no managed Order/Product objects
+ */
+public class OrderHistoryItem {
+
+    private final Long id;
+    private final LocalDateTime orderDate;
+    private final String status;
+    private final Integer quantity;
+    private final Double totalPrice;
+    private final String productName;
+
+    public OrderHistoryItem(Long id, LocalDateTime orderDate, String status,
+            Integer quantity, Double totalPrice, String productName) {
+        this.id = id;
+        this.orderDate = orderDate;
+        this.status = status;
+        this.quantity = quantity;
+        this.totalPrice = totalPrice;
+        this.productName = productName;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public LocalDateTime getOrderDate() {
+        return orderDate;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public Double getTotalPrice() {
+        return totalPrice;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    @Override
+    public String toString() {
+        return "OrderHistoryItem{" +
+                "id=" + id +
+                ", productName='" + productName + '\'' +
+                ", status='" + status + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,49 @@
+package com.register.springboot.model;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * OrderStatusSummary - Number of orders per status, counted at one moment
+ * Every known status is present (0 if no order has it); counts holds the
+ * statuses in alphabetical order.
+ */
+public class OrderStatusSummary {
+
+    // Statuses an order can have
+    public static final List<String> STATUSES = List.of("PENDING", "ACCEPTED", "REJECTED");
+
+    private final Map<String, Long> counts;
+    private final long total;
+    private final Instant countedAt;
+
+    public OrderStatusSummary(Map<String, Long> counts, Instant countedAt) {
+        Map<String, Long> all = new TreeMap<>(counts);
+        for (String status : STATUSES) {
+            all.putIfAbsent(status, 0L);
+        }
+        long sum = 0;
+        for (long count : all.values()) {
+            sum += count;
+        }
+        this.counts = Collections.unmodifiableMap(all);
+        this.total = sum;
+        this.countedAt = countedAt;
+    }
+
+    // Getters
+    public Map<String, Long> getCounts() {
+        return counts;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public Instant getCountedAt() {
+        return countedAt;
+    }
+}
@@ -1,5 +1,6 @@
 package com.register.springboot.model;
 
+import com.register.springboot.component.EntityCountListener;
 import javax.persistence.*;
 import org.springframework.format.annotation.DateTimeFormat;
 import java.time.LocalDate;
@@ -10,6 +11,7 @@ import java.time.LocalDateTime;
  * Maps to 'products' table in database
  */
 @Entity
+@EntityListeners(EntityCountListener.class)
 @Table(name = "products")
 public class Product {
 
@@ -0,0 +1,103 @@
+package com.register.springboot.model;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * RevenueReport - Orders, units and revenue per product, customer, state, city or day
+ * Computed by OrderAnalytics from its in-memory columns. Lines are ordered by
+ * revenue (highest first), or by date when grouped by day; the totals cover
+ * every matching order, also those beyond the line limit.
+ */
+public class RevenueReport {
+
+    private final String groupedBy;
+    private final List<Line> lines;
+    private final long orders;
+    private final long units;
+    private final BigDecimal revenue;
+    private final long ordersScanned;
+    private final long scanMicros;
+
+    public RevenueReport(String groupedBy, List<Line> lines, long orders, long units, long revenueCents,
+            long ordersScanned, long scanMicros) {
+        this.groupedBy = groupedBy;
+        this.lines = Collections.unmodifiableList(lines);
+        this.orders = orders;
+        this.units = units;
+        this.revenue = BigDecimal.valueOf(revenueCents, 2);
+        this.ordersScanned = ordersScanned;
+        this.scanMicros = scanMicros;
+    }
+
+    // Getters
+    public String getGroupedBy() {
+        return groupedBy;
+    }
+
+    public List<Line> getLines() {
+        return lines;
+    }
+
+    public long getOrders() {
+        return orders;
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    public long getOrdersScanned() {
+        return ordersScanned;
+    }
+
+    public long getScanMicros() {
+        return scanMicros;
+    }
+
+    /**
+     * One group: key is the product id, user id, state, city or ISO date;
+     * label is the product name (null for the other groupings)
+     */
+    public static class Line {
+
+        private final String key;
+        private final String label;
+        private final long orders;
+        private final long units;
+        private final BigDecimal revenue;
+
+        public Line(String key, String label, long orders, long units, long revenueCents) {
+            this.key = key;
+            this.label = label;
+            this.orders = orders;
+            this.units = units;
+            this.revenue = BigDecimal.valueOf(revenueCents, 2);
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public long getOrders() {
+            return orders;
+        }
+
+        public long getUnits() {
+            return units;
+        }
+
+        public BigDecimal getRevenue() {
+            return revenue;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.register.springboot.model;
 
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
@@ -11,11 +12,14 @@ import javax.validation.constraints.Pattern;
 
 import org.hibernate.validator.constraints.Length;
 
+import com.register.springboot.component.EntityCountListener;
+
 /**
  * Entity class representing a User in the system.
  * Includes validation for registration fields.
  */
 @Entity
+@EntityListeners(EntityCountListener.class)
 @Table(name = "users")
 public class User {
 	@Id
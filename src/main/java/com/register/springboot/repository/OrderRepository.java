@@ -1,9 +1,15 @@
 package com.register.springboot.repository;
 
 import com.register.springboot.model.Order;
+import com.register.springboot.model.OrderHistoryItem;
 import com.register.springboot.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -11,7 +17,7 @@ import java.util.List;
  * Spring Data JPA automatically implements these methods
  */
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderRepositoryCustom {
 
     // Find orders by user
     List<Order> findByUser(User user);
@@ -19,9 +25,50 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     // Find orders by user, ordered by date (newest first)
     List<Order> findByUserOrderByOrderDateDesc(User user);
 
+    // Order history of one user (newest first) as read-only rows, in one joined query
+    @Query("select new com.register.springboot.model.OrderHistoryItem(" +
+            "o.id, o.orderDate, o.status, o.quantity, o.totalPrice, p.name) " +
+            "from Order o join o.product p " +
+            "where o.user = :user " +
+            "order by o.orderDate desc, o.id desc")
+    List<OrderHistoryItem> findHistoryByUser(@Param("user") User user);
+
     // Find orders by status
     List<Order> findByStatus(String status);
 
     // Count orders by status
     long countByStatus(String status);
+
+    // Count orders of every status in one query: rows of [status, count] (a replica may serve it)
+    // Used to reconcile the dashboard counters
+    @Transactional(readOnly = true)
+    @Query("select o.status, count(o) from Order o group by o.status")
+    List<Object[]> countGroupedByStatus();
+
+    // ========================================
+    // KEYSET PAGINATION on (order_date, id)
+    // Pageable is only used for the LIMIT - never for OFFSET
+    // The cursor test is written as a range on order_date so it can use idx_orders_date,
+    // and the (never null) product is left-joined so the planner reads orders first
+    // instead of scanning products and sorting every order
+    // ========================================
+
+    // Newest orders first (first page)
+    @Query("select o from Order o left join fetch o.product " +
+            "order by o.orderDate desc, o.id desc")
+    List<Order> findNewest(Pageable limit);
+
+    // Orders older than the cursor (next page)
+    @Query("select o from Order o left join fetch o.product " +
+            "where o.orderDate <= :orderDate and (o.orderDate < :orderDate or o.id < :id) " +
+            "order by o.orderDate desc, o.id desc")
+    List<Order> findOlderThan(@Param("orderDate") LocalDateTime orderDate,
+            @Param("id") Long id, Pageable limit);
+
+    // Orders newer than the cursor (previous page), oldest first
+    @Query("select o from Order o left join fetch o.product " +
+            "where o.orderDate >= :orderDate and (o.orderDate > :orderDate or o.id > :id) " +
+            "order by o.orderDate asc, o.id asc")
+    List<Order> findNewerThan(@Param("orderDate") LocalDateTime orderDate,
+            @Param("id") Long id, Pageable limit);
 }
@@ -0,0 +1,32 @@
+package com.register.springboot.repository;
+
+import com.register.springboot.model.Order;
+import com.register.springboot.model.OrderExportRow;
+import com.register.springboot.model.OrderFact;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * OrderRepositoryCustom - Hand-written order operations mixed into OrderRepository
+ */
+public interface OrderRepositoryCustom {
+
+    /**
+     * Insert new orders with JDBC batches (one round trip per batch)
+     * Sets the generated id on every order.
+     */
+    void insertAll(List<Order> orders);
+
+    /**
+     * Stream orders in id order from a forward-only cursor, for exports of any size
+     * Null filters are left out; from is inclusive, to exclusive. Call inside a
+     * transaction and close the stream (it holds the connection until then).
+     */
+    Stream<OrderExportRow> streamForExport(LocalDateTime from, LocalDateTime to, String status);
+
+    /**
+     * Stream every order's analytics fields in id order, same cursor rules as streamForExport
+     */
+    Stream<OrderFact> streamForAnalytics();
+}
@@ -0,0 +1,166 @@
+package com.register.springboot.repository;
+
+import com.register.springboot.model.Order;
+import com.register.springboot.model.OrderExportRow;
+import com.register.springboot.model.OrderFact;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * OrderRepositoryCustomImpl - JDBC batch insert, streaming export and analytics load for orders
+ *
+ * Order ids are IDENTITY columns, which stops Hibernate from batching inserts,
+ * so bulk inserts go through plain JDBC. JdbcTemplate joins the surrounding
+ * JPA transaction. With rewriteBatchedStatements=true the MySQL driver sends
+ * each batch as one multi-row INSERT.
+ *
+ * Exports and the analytics load read plain rows from a forward-only, read-only cursor instead of
+ * entities, so nothing piles up in the persistence context.
+ */
+public class OrderRepositoryCustomImpl implements OrderRepositoryCustom {
+
+    private static final String INSERT_SQL = "insert into orders " +
+            "(user_id, product_id, quantity, total_price, customer_name, phone, city, state, " +
+            "card_number, status, order_date, rejection_reason, tracking_id) " +
+            "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String EXPORT_SQL = "select o.id, o.order_date, o.status, o.user_id, u.user_name, " +
+            "o.product_id, p.name, o.quantity, o.total_price, o.customer_name, o.city, o.state " +
+            "from orders o join users u on u.id = o.user_id join products p on p.id = o.product_id";
+
+    private static final String ANALYTICS_SQL = "select id, product_id, user_id, quantity, total_price, status, " +
+            "order_date, state, city from orders order by id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Rows per JDBC batch (bounds the size of one multi-row INSERT)
+    @Value("${app.orders.jdbc-batch-size:500}")
+    private int batchSize;
+
+    // Rows per round trip of an export cursor (MySQL streams row by row instead, see streamingFetchSize)
+    @Value("${app.orders.export.fetch-size:1000}")
+    private int exportFetchSize;
+
+    @Override
+    public void insertAll(List<Order> orders) {
+        for (int from = 0; from < orders.size(); from += batchSize) {
+            insertBatch(orders.subList(from, Math.min(from + batchSize, orders.size())));
+        }
+    }
+
+    private void insertBatch(List<Order> batch) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (Order order : batch) {
+                    ps.setInt(1, order.getUser().getId());
+                    ps.setLong(2, order.getProduct().getId());
+                    ps.setInt(3, order.getQuantity());
+                    ps.setObject(4, order.getTotalPrice(), Types.DOUBLE);
+                    ps.setString(5, order.getCustomerName());
+                    ps.setString(6, order.getPhone());
+                    ps.setString(7, order.getCity());
+                    ps.setString(8, order.getState());
+                    ps.setString(9, order.getCardNumber());
+                    ps.setString(10, order.getStatus());
+                    ps.setTimestamp(11, order.getOrderDate() != null ? Timestamp.valueOf(order.getOrderDate()) : null);
+                    ps.setString(12, order.getRejectionReason());
+                    ps.setString(13, order.getTrackingId());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                // Generated keys come back in insert order
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    int i = 0;
+                    while (i < batch.size() && keys.next()) {
+                        batch.get(i++).setId(keys.getLong(1));
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public Stream<OrderExportRow> streamForExport(LocalDateTime from, LocalDateTime to, String status) {
+        StringBuilder sql = new StringBuilder(EXPORT_SQL);
+        List<Object> args = new ArrayList<>();
+        String glue = " where ";
+        if (from != null) {
+            sql.append(glue).append("o.order_date >= ?");
+            args.add(Timestamp.valueOf(from));
+            glue = " and ";
+        }
+        if (to != null) {
+            sql.append(glue).append("o.order_date < ?");
+            args.add(Timestamp.valueOf(to));
+            glue = " and ";
+        }
+        if (status != null) {
+            sql.append(glue).append("o.status = ?");
+            args.add(status);
+        }
+        sql.append(" order by o.id");
+
+        return jdbcTemplate.queryForStream(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql.toString(),
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(streamingFetchSize(connection));
+            for (int i = 0; i < args.size(); i++) {
+                ps.setObject(i + 1, args.get(i));
+            }
+            return ps;
+        }, (rs, rowNum) -> new OrderExportRow(
+                rs.getLong(1),
+                rs.getTimestamp(2) != null ? rs.getTimestamp(2).toLocalDateTime() : null,
+                rs.getString(3),
+                rs.getObject(4, Integer.class),
+                rs.getString(5),
+                rs.getObject(6, Long.class),
+                rs.getString(7),
+                rs.getObject(8, Integer.class),
+                rs.getObject(9, Double.class),
+                rs.getString(10),
+                rs.getString(11),
+                rs.getString(12)));
+    }
+
+    @Override
+    public Stream<OrderFact> streamForAnalytics() {
+        return jdbcTemplate.queryForStream(connection -> {
+            PreparedStatement ps = connection.prepareStatement(ANALYTICS_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(streamingFetchSize(connection));
+            return ps;
+        }, (rs, rowNum) -> new OrderFact(
+                rs.getLong(1),
+                rs.getObject(2, Long.class),
+                rs.getObject(3, Integer.class),
+                rs.getObject(4, Integer.class),
+                rs.getObject(5, Double.class),
+                rs.getString(6),
+                rs.getTimestamp(7) != null ? rs.getTimestamp(7).toLocalDateTime() : null,
+                rs.getString(8),
+                rs.getString(9)));
+    }
+
+    // MySQL Connector/J buffers the whole result unless the fetch size is Integer.MIN_VALUE,
+    // which streams it row by row; other drivers reject that value and honour a positive one
+    private int streamingFetchSize(Connection connection) throws SQLException {
+        return "MySQL".equals(connection.getMetaData().getDatabaseProductName()) ? Integer.MIN_VALUE : exportFetchSize;
+    }
+}
@@ -2,8 +2,10 @@ package com.register.springboot.repository;
 
 import com.register.springboot.model.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
-import java.util.List;
 
 /**
  * ProductRepository - Database operations for Product entity
@@ -12,12 +14,9 @@ import java.util.List;
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
-    // Find products containing name (case-insensitive search)
-    List<Product> findByNameContainingIgnoreCase(String name);
-
-    // Find products with price less than specified amount
-    List<Product> findByPriceLessThan(Double price);
-
-    // Find products that are in stock
-    List<Product> findByStockGreaterThan(Integer stock);
+    // Atomically take stock: returns 1 if reserved, 0 if not enough stock (or no such product)
+    @Modifying
+    @Query("update Product p set p.stock = p.stock - :quantity " +
+            "where p.id = :id and p.stock >= :quantity")
+    int decrementStock(@Param("id") Long id, @Param("quantity") int quantity);
 }
@@ -20,10 +20,10 @@ public interface UserRepository extends JpaRepository<User, Integer> {
 	User findByUserName(String userName);
 
 	/**
-	 * Counts users that have a specific role.
+	 * Checks if any user has exactly the given role (an indexed lookup).
 	 * 
 	 * @param role to search for (e.g., "ROLE_ADMIN").
-	 * @return count of users with that role.
+	 * @return true if at least one user has that role.
 	 */
-	long countByRolesContaining(String role);
+	boolean existsByRoles(String role);
 }
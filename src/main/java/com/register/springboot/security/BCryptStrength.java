@@ -0,0 +1,63 @@
+package com.register.springboot.security;
+
+import java.util.Arrays;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Measures BCrypt on the current machine and picks the strongest cost factor
+ * whose hash time stays within a target latency.
+ * 
+ * Used at startup when app.security.bcrypt.target-ms is set. Hash times per
+ * strength are measured by BCryptBenchmark in the jmh profile.
+ */
+public final class BCryptStrength {
+
+	/** BCryptPasswordEncoder accepts 4..31; beyond 16 is impractical for logins */
+	private static final int MIN_STRENGTH = 4;
+	private static final int MAX_STRENGTH = 16;
+
+	/** Hashes timed per strength; the median is used */
+	private static final int SAMPLES = 5;
+
+	private BCryptStrength() {
+	}
+
+	/**
+	 * Finds the highest strength whose median hash time is within the target.
+	 * Each step doubles the cost, so the search stops soon after the target.
+	 * 
+	 * @param targetMillis acceptable time for one hash.
+	 * @return the strength to use (at least 4).
+	 */
+	public static int pickStrength(long targetMillis) {
+		int best = MIN_STRENGTH;
+		for (int strength = MIN_STRENGTH; strength <= MAX_STRENGTH; strength++) {
+			double millis = medianHashMillis(strength);
+			if (millis > targetMillis) {
+				break;
+			}
+			best = strength;
+		}
+		return best;
+	}
+
+	/**
+	 * Median time of one BCrypt hash at the given strength.
+	 * 
+	 * @param strength the BCrypt cost factor.
+	 * @return median milliseconds per hash.
+	 */
+	private static double medianHashMillis(int strength) {
+		BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+		encoder.encode("warm-up-password");
+		double[] samples = new double[SAMPLES];
+		for (int i = 0; i < SAMPLES; i++) {
+			long start = System.nanoTime();
+			encoder.encode("benchmark-password");
+			samples[i] = (System.nanoTime() - start) / 1_000_000.0;
+		}
+		Arrays.sort(samples);
+		return samples[SAMPLES / 2];
+	}
+}
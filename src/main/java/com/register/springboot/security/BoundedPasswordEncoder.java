@@ -0,0 +1,144 @@
+package com.register.springboot.security;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * PasswordEncoder that runs the (deliberately slow) delegate on a small,
+ * dedicated thread pool with a bounded queue.
+ * 
+ * A login or registration storm can then use at most the pool's threads worth
+ * of CPU; everything else keeps serving pages. When the queue is full, or a
+ * task waits longer than the timeout, the call fails fast with
+ * PasswordHashingBusyException instead of piling up.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+	private final PasswordEncoder delegate;
+	private final ThreadPoolExecutor executor;
+	private final long timeoutMillis;
+
+	private final LongAdder completed = new LongAdder();
+	private final LongAdder rejected = new LongAdder();
+	private final LongAdder timedOut = new LongAdder();
+	private final LongAdder totalNanos = new LongAdder();
+
+	/**
+	 * @param delegate      the encoder doing the actual hashing.
+	 * @param threads       number of hashing threads.
+	 * @param queueCapacity hashing requests allowed to wait for a thread.
+	 * @param timeoutMillis maximum time a caller waits for its result.
+	 */
+	public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, long timeoutMillis) {
+		this.delegate = delegate;
+		this.timeoutMillis = timeoutMillis;
+		AtomicInteger threadNumber = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+					Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}, new ThreadPoolExecutor.AbortPolicy());
+	}
+
+	@Override
+	public String encode(CharSequence rawPassword) {
+		return run(() -> delegate.encode(rawPassword));
+	}
+
+	@Override
+	public boolean matches(CharSequence rawPassword, String encodedPassword) {
+		return run(() -> delegate.matches(rawPassword, encodedPassword));
+	}
+
+	@Override
+	public boolean upgradeEncoding(String encodedPassword) {
+		return delegate.upgradeEncoding(encodedPassword);
+	}
+
+	private <T> T run(Callable<T> task) {
+		Future<T> future;
+		try {
+			future = executor.submit(() -> {
+				long start = System.nanoTime();
+				try {
+					return task.call();
+				} finally {
+					totalNanos.add(System.nanoTime() - start);
+					completed.increment();
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			rejected.increment();
+			throw new PasswordHashingBusyException("Too many logins right now, please try again shortly");
+		}
+
+		try {
+			return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			future.cancel(true);
+			timedOut.increment();
+			throw new PasswordHashingBusyException("Password check timed out, please try again shortly");
+		} catch (InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new PasswordHashingBusyException("Password check was interrupted");
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new IllegalStateException(cause);
+		}
+	}
+
+	// ========== METRICS ==========
+
+	/** Hashing tasks currently running. */
+	public int getActiveCount() {
+		return executor.getActiveCount();
+	}
+
+	/** Hashing tasks waiting for a thread. */
+	public int getQueueSize() {
+		return executor.getQueue().size();
+	}
+
+	/** Hashing tasks finished (successfully or not). */
+	public long getCompletedCount() {
+		return completed.sum();
+	}
+
+	/** Requests shed because the queue was full. */
+	public long getRejectedCount() {
+		return rejected.sum();
+	}
+
+	/** Requests whose caller gave up waiting. */
+	public long getTimedOutCount() {
+		return timedOut.sum();
+	}
+
+	/** Average time one hash takes on a hashing thread, in milliseconds. */
+	public double getAverageHashMillis() {
+		long count = completed.sum();
+		return count == 0 ? 0.0 : totalNanos.sum() / 1_000_000.0 / count;
+	}
+
+	@Override
+	public void destroy() {
+		executor.shutdownNow();
+	}
+
+}
@@ -0,0 +1,100 @@
+package com.register.springboot.security;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.core.convert.converter.GenericConverter;
+import org.springframework.core.serializer.support.DeserializingConverter;
+import org.springframework.core.serializer.support.SerializingConverter;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+/**
+ * Turns session attributes into the bytes the session store keeps.
+ *
+ * A logged-in SecurityContext is stored as its username only (a few bytes
+ * instead of the serialized principal, password hash, authorities and request
+ * details) and is rebuilt from MyUserDetailsService, which serves it from its
+ * cache, when the session is read. Role changes and deleted users therefore
+ * take effect on the next request. Every other attribute is Java-serialized.
+ */
+class CompactSessionSerializer implements GenericConverter {
+
+	private static final byte SERIALIZED = 0;
+	private static final byte USERNAME = 1;
+
+	private final Supplier<MyUserDetailsService> userDetailsService;
+	private final SerializingConverter serializer = new SerializingConverter();
+	private final DeserializingConverter deserializer;
+
+	CompactSessionSerializer(Supplier<MyUserDetailsService> userDetailsService, ClassLoader classLoader) {
+		this.userDetailsService = userDetailsService;
+		this.deserializer = new DeserializingConverter(classLoader);
+	}
+
+	@Override
+	public Set<ConvertiblePair> getConvertibleTypes() {
+		return Set.of(new ConvertiblePair(Object.class, byte[].class),
+				new ConvertiblePair(byte[].class, Object.class));
+	}
+
+	@Override
+	public Object convert(Object source, TypeDescriptor sourceType, TypeDescriptor targetType) {
+		if (source == null) {
+			return null;
+		}
+		return targetType.getType() == byte[].class ? serialize(source) : deserialize((byte[]) source);
+	}
+
+	private byte[] serialize(Object attribute) {
+		String userName = loggedInUser(attribute);
+		if (userName != null) {
+			return tagged(USERNAME, userName.getBytes(StandardCharsets.UTF_8));
+		}
+		return tagged(SERIALIZED, serializer.convert(attribute));
+	}
+
+	private Object deserialize(byte[] bytes) {
+		if (bytes[0] == SERIALIZED) {
+			byte[] serialized = new byte[bytes.length - 1];
+			System.arraycopy(bytes, 1, serialized, 0, serialized.length);
+			return deserializer.convert(serialized);
+		}
+
+		String userName = new String(bytes, 1, bytes.length - 1, StandardCharsets.UTF_8);
+		SecurityContext context = new SecurityContextImpl();
+		try {
+			UserDetails user = userDetailsService.get().loadUserByUsername(userName);
+			context.setAuthentication(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+		} catch (UsernameNotFoundException e) {
+			// Deleted since login: the session is no longer logged in
+		}
+		return context;
+	}
+
+	// Username of a form login, the only authentication that can be rebuilt from the username alone
+	private static String loggedInUser(Object attribute) {
+		if (!(attribute instanceof SecurityContext)) {
+			return null;
+		}
+		Authentication authentication = ((SecurityContext) attribute).getAuthentication();
+		if (authentication instanceof UsernamePasswordAuthenticationToken && authentication.isAuthenticated()
+				&& authentication.getPrincipal() instanceof MyUserDetails) {
+			return authentication.getName();
+		}
+		return null;
+	}
+
+	private static byte[] tagged(byte tag, byte[] payload) {
+		byte[] bytes = new byte[payload.length + 1];
+		bytes[0] = tag;
+		System.arraycopy(payload, 0, bytes, 1, payload.length);
+		return bytes;
+	}
+}
@@ -0,0 +1,140 @@
+package com.register.springboot.security;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+
+/**
+ * SessionRepository that only saves sessions that changed.
+ *
+ * Spring Session stamps the last access time on every request, so every
+ * session would be written back on every request. Here the new time is only
+ * passed on once the stored one is older than the touch interval, and a
+ * session with no changes at all is not handed to the store, so a busy user
+ * costs one write per interval instead of one per page. Sessions may expire
+ * up to one touch interval early.
+ */
+class LazyTouchSessionRepository implements SessionRepository<LazyTouchSessionRepository.LazyTouchSession> {
+
+	private final SessionRepository<Session> delegate;
+	private final Duration touchInterval;
+
+	/**
+	 * @param delegate      the store sessions are kept in.
+	 * @param touchInterval how stale the stored last access time may get.
+	 */
+	@SuppressWarnings("unchecked")
+	LazyTouchSessionRepository(SessionRepository<? extends Session> delegate, Duration touchInterval) {
+		this.delegate = (SessionRepository<Session>) delegate;
+		this.touchInterval = touchInterval;
+	}
+
+	@Override
+	public LazyTouchSession createSession() {
+		LazyTouchSession session = new LazyTouchSession(delegate.createSession());
+		session.changed = true;
+		return session;
+	}
+
+	@Override
+	public void save(LazyTouchSession session) {
+		if (session.changed) {
+			delegate.save(session.session);
+			session.changed = false;
+		}
+	}
+
+	@Override
+	public LazyTouchSession findById(String id) {
+		Session session = delegate.findById(id);
+		return session != null ? new LazyTouchSession(session) : null;
+	}
+
+	@Override
+	public void deleteById(String id) {
+		delegate.deleteById(id);
+	}
+
+	/**
+	 * Session of the delegate store that remembers whether it was changed.
+	 */
+	final class LazyTouchSession implements Session {
+
+		private final Session session;
+		private boolean changed;
+
+		private LazyTouchSession(Session session) {
+			this.session = session;
+		}
+
+		@Override
+		public String getId() {
+			return session.getId();
+		}
+
+		@Override
+		public String changeSessionId() {
+			changed = true;
+			return session.changeSessionId();
+		}
+
+		@Override
+		public <T> T getAttribute(String attributeName) {
+			return session.getAttribute(attributeName);
+		}
+
+		@Override
+		public Set<String> getAttributeNames() {
+			return session.getAttributeNames();
+		}
+
+		@Override
+		public void setAttribute(String attributeName, Object attributeValue) {
+			changed = true;
+			session.setAttribute(attributeName, attributeValue);
+		}
+
+		@Override
+		public void removeAttribute(String attributeName) {
+			changed = true;
+			session.removeAttribute(attributeName);
+		}
+
+		@Override
+		public Instant getCreationTime() {
+			return session.getCreationTime();
+		}
+
+		@Override
+		public void setLastAccessedTime(Instant lastAccessedTime) {
+			if (Duration.between(session.getLastAccessedTime(), lastAccessedTime).compareTo(touchInterval) >= 0) {
+				changed = true;
+				session.setLastAccessedTime(lastAccessedTime);
+			}
+		}
+
+		@Override
+		public Instant getLastAccessedTime() {
+			return session.getLastAccessedTime();
+		}
+
+		@Override
+		public void setMaxInactiveInterval(Duration interval) {
+			changed = true;
+			session.setMaxInactiveInterval(interval);
+		}
+
+		@Override
+		public Duration getMaxInactiveInterval() {
+			return session.getMaxInactiveInterval();
+		}
+
+		@Override
+		public boolean isExpired() {
+			return session.isExpired();
+		}
+	}
+}
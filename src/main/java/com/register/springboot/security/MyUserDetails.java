@@ -1,39 +1,39 @@
 
 package com.register.springboot.security;
 
-import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.stream.Collectors;
 
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
-import com.register.springboot.model.User;
-
 /**
  * Principal object for Spring Security.
- * Wraps the User entity to provide security-related details.
+ * Wraps an immutable snapshot of the User entity to provide security-related details.
  */
 @SuppressWarnings("serial")
 public class MyUserDetails implements UserDetails {
 
-	private User user;
+	private final UserSnapshot user;
 
-	public MyUserDetails(User user) {
+	public MyUserDetails(UserSnapshot user) {
 		super();
 		this.user = user;
 	}
 
+	/**
+	 * Returns the snapshot of the user behind this principal.
+	 */
+	public UserSnapshot getUser() {
+		return user;
+	}
+
 	/**
 	 * Returns authorities (roles) granted to the user.
-	 * Splits the roles string by comma and maps to SimpleGrantedAuthority.
+	 * Parsed once from the comma-separated roles string when the snapshot was taken.
 	 */
 	@Override
 	public Collection<? extends GrantedAuthority> getAuthorities() {
-		// return Arrays.asList(new SimpleGrantedAuthority
-		return Arrays.stream(user.getRoles().split(",")).map(SimpleGrantedAuthority::new).collect(Collectors.toList());
+		return user.getAuthorities();
 	}
 
 	@Override
@@ -1,18 +1,29 @@
 
 package com.register.springboot.security;
 
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import com.register.springboot.cache.CacheStats;
+import com.register.springboot.cache.LruCache;
+import com.register.springboot.datasource.ReplicaRouting;
 import com.register.springboot.model.User;
 import com.register.springboot.repository.UserRepository;
 
 /**
  * Custom implementation of Spring Security's UserDetailsService.
- * Fetches user data from the database using UserRepository.
+ * Fetches user data from the database using UserRepository and keeps a bounded
+ * per-username cache of immutable snapshots, shared by login and the controllers.
+ * Code that changes or deletes users must evict them from the cache.
  */
 @Service
 public class MyUserDetailsService implements UserDetailsService {
@@ -20,6 +31,20 @@ public class MyUserDetailsService implements UserDetailsService {
 	@Autowired
 	UserRepository userrepository;
 
+	/** Maximum number of users kept in the cache */
+	@Value("${app.security.user-cache-size:10000}")
+	private int cacheSize;
+
+	private LruCache<String, UserSnapshot> userCache;
+
+	/** Bumped on every eviction */
+	private final AtomicLong evictions = new AtomicLong();
+
+	@PostConstruct
+	void initCache() {
+		userCache = new LruCache<>(cacheSize);
+	}
+
 	/**
 	 * Loads user by username for authentication.
 	 * 
@@ -29,11 +54,83 @@ public class MyUserDetailsService implements UserDetailsService {
 	 */
 	@Override
 	public UserDetails loadUserByUsername(String userName) throws UsernameNotFoundException {
-		User user = userrepository.findByUserName(userName);
+		UserSnapshot user = findUser(userName);
 		if (user == null) {
 			throw new UsernameNotFoundException("username not found");
 		}
 		return new MyUserDetails(user);
 	}
 
+	/**
+	 * Finds a user by username, from the cache when possible.
+	 * 
+	 * @param userName the username to search for.
+	 * @return snapshot of the user, or null if there is no such user.
+	 */
+	public UserSnapshot findUser(String userName) {
+		if (userName == null) {
+			return null;
+		}
+		UserSnapshot snapshot = userCache.get(userName);
+		if (snapshot != null) {
+			return snapshot;
+		}
+		// An eviction while loading means the row may have changed; don't cache what we read
+		long generation = evictions.get();
+		// Credentials and roles always come from the primary (a fresh sign-up must be able to log in)
+		User user = ReplicaRouting.onPrimary(() -> userrepository.findByUserName(userName));
+		if (user == null) {
+			return null;
+		}
+		snapshot = UserSnapshot.of(user);
+		synchronized (evictions) {
+			if (evictions.get() == generation) {
+				userCache.put(userName, snapshot);
+			}
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Resolves the logged-in user for controllers without a query on a cache hit.
+	 * 
+	 * @param authentication the current authentication.
+	 * @return a User reference (id and username only), or null if the user no longer exists.
+	 */
+	public User getCurrentUser(Authentication authentication) {
+		UserSnapshot user = findUser(authentication.getName());
+		return user != null ? user.toUserReference() : null;
+	}
+
+	/**
+	 * Removes one user from the cache (after an update or delete).
+	 * 
+	 * @param userName the username to evict.
+	 */
+	public void evict(String userName) {
+		if (userName != null) {
+			synchronized (evictions) {
+				evictions.incrementAndGet();
+				userCache.remove(userName);
+			}
+		}
+	}
+
+	/**
+	 * Removes every user from the cache (e.g. when a username may have changed).
+	 */
+	public void evictAll() {
+		synchronized (evictions) {
+			evictions.incrementAndGet();
+			userCache.clear();
+		}
+	}
+
+	/**
+	 * Returns hit/miss/eviction counters of the user cache.
+	 */
+	public CacheStats getCacheStats() {
+		return userCache.stats();
+	}
+
 }
@@ -0,0 +1,17 @@
+package com.register.springboot.security;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+/**
+ * Thrown when the password hashing executor sheds load (queue full or timed out).
+ * Being an AuthenticationException, a login attempt fails with the normal
+ * login error instead of a server error.
+ */
+@SuppressWarnings("serial")
+public class PasswordHashingBusyException extends AuthenticationServiceException {
+
+	public PasswordHashingBusyException(String message) {
+		super(message);
+	}
+
+}
@@ -1,6 +1,9 @@
 package com.register.springboot.security;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
@@ -9,8 +12,6 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.NoOpPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
 /**
  * Main security configuration class for the application.
@@ -19,6 +20,8 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 @EnableWebSecurity
 @Configuration
 public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
+	private static final Logger log = LoggerFactory.getLogger(SecurityConfiguration.class);
+
 	@Autowired
 	private CustomLoginSuccesHandler successHandler;
 	@Autowired
@@ -29,10 +32,39 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
 		auth.userDetailsService(userDetailsService);
 	}
 
+	/** BCrypt cost factor, unless calibrated from target-ms */
+	@Value("${app.security.bcrypt.strength:10}")
+	private int bcryptStrength;
+
+	/** If > 0, pick the strongest cost whose hash takes at most this long here */
+	@Value("${app.security.bcrypt.target-ms:0}")
+	private long bcryptTargetMillis;
+
+	/** Hashing threads (0 = half the CPUs, at least one) */
+	@Value("${app.security.hashing.threads:0}")
+	private int hashingThreads;
+
+	@Value("${app.security.hashing.queue-capacity:64}")
+	private int hashingQueueCapacity;
+
+	@Value("${app.security.hashing.timeout-ms:5000}")
+	private long hashingTimeoutMillis;
+
+	/**
+	 * BCrypt, run on a dedicated bounded executor so hashing cannot take over
+	 * the Tomcat worker threads during a login or registration burst.
+	 */
 	@Bean
-	public BCryptPasswordEncoder passwordEncoder() {
-		BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder();
-		return bcrypt;
+	public BoundedPasswordEncoder passwordEncoder() {
+		int strength = bcryptStrength;
+		if (bcryptTargetMillis > 0) {
+			strength = BCryptStrength.pickStrength(bcryptTargetMillis);
+			log.info("BCrypt strength {} picked for a {} ms target", strength, bcryptTargetMillis);
+		}
+		int threads = hashingThreads > 0 ? hashingThreads
+				: Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+		return new BoundedPasswordEncoder(new BCryptPasswordEncoder(strength), threads,
+				hashingQueueCapacity, hashingTimeoutMillis);
 	}
 
 	@Override
@@ -40,6 +72,7 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
 		http
 				// ========== SESSION & CACHE CONTROL ==========
 				// Prevents back button from showing cached pages
+				// Only when the response has no Cache-Control of its own (see WebCachingConfiguration)
 				.headers()
 				.cacheControl() // Adds: Cache-Control: no-cache, no-store
 				.and()
@@ -52,12 +85,16 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
 				.antMatchers("/edit/{id}").hasRole("ADMIN")
 				.antMatchers("/delete/{id}").hasRole("ADMIN")
 				.antMatchers("/list").hasRole("ADMIN")
+				.antMatchers("/actuator/health").permitAll()
+				.antMatchers("/actuator/**").hasRole("ADMIN") // Prometheus scrapes with HTTP Basic
 
 				// Logged-in users (USER or ADMIN) - products, orders
 				.antMatchers("/products/**").hasAnyRole("USER", "ADMIN")
 				.antMatchers("/order/**").hasAnyRole("USER", "ADMIN")
 				.antMatchers("/my-orders").hasAnyRole("USER", "ADMIN")
 				.antMatchers("/User").hasAnyRole("USER", "ADMIN")
+				.antMatchers("/api/orders/**").hasAnyRole("USER", "ADMIN")
+				.antMatchers("/api/products/**").hasAnyRole("USER", "ADMIN")
 
 				// Public pages - no login required
 				.antMatchers("/register").permitAll()
@@ -73,6 +110,10 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
 				.successHandler(successHandler) // Custom redirect after login
 				.and()
 
+				// HTTP Basic for API clients (e.g. bulk orders, catalog)
+				.httpBasic()
+				.and()
+
 				// ========== LOGOUT CONFIG ==========
 				.logout()
 				.logoutSuccessUrl("/") // Redirect to home after logout
@@ -0,0 +1,91 @@
+package com.register.springboot.security;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.support.GenericConversionService;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.session.config.annotation.web.http.EnableSpringHttpSession;
+import org.springframework.session.jdbc.JdbcIndexedSessionRepository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps HTTP sessions in the database instead of Tomcat memory, so any node
+ * can serve any request and the heap no longer grows with logged-in users.
+ *
+ * The store is picked with spring.session.store-type: "jdbc" (this class) or
+ * "none" for Tomcat's in-memory sessions. Sessions hold only the username of
+ * a logged-in user (CompactSessionSerializer) and are written when they change
+ * (LazyTouchSessionRepository). Tables come from the V4 migration; sessions
+ * always use the primary database.
+ *
+ * Logout keeps working unchanged: invalidating the session deletes its row and
+ * the cookie keeps the JSESSIONID name (server.servlet.session.cookie.name).
+ */
+@Configuration
+@EnableSpringHttpSession
+@ConditionalOnProperty(name = "spring.session.store-type", havingValue = "jdbc")
+public class SessionStoreConfiguration {
+
+	private static final Logger log = LoggerFactory.getLogger(SessionStoreConfiguration.class);
+
+	@Autowired
+	DataSource dataSource;
+
+	/** Idle time after which a session expires */
+	@Value("${server.servlet.session.timeout:30m}")
+	private Duration timeout;
+
+	/** How often the last access time of a session in use is written */
+	@Value("${app.session.touch-interval:60s}")
+	private Duration touchInterval;
+
+	/** Expired sessions deleted per statement */
+	@Value("${app.session.cleanup-batch-size:500}")
+	private int cleanupBatchSize;
+
+	@Bean
+	public LazyTouchSessionRepository sessionRepository(ObjectProvider<MyUserDetailsService> userDetailsService) {
+		JdbcIndexedSessionRepository store = new JdbcIndexedSessionRepository(new JdbcTemplate(dataSource),
+				new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+		store.setDefaultMaxInactiveInterval((int) timeout.getSeconds());
+
+		GenericConversionService conversionService = new GenericConversionService();
+		conversionService.addConverter(
+				new CompactSessionSerializer(userDetailsService::getObject, getClass().getClassLoader()));
+		store.setConversionService(conversionService);
+		return new LazyTouchSessionRepository(store, touchInterval);
+	}
+
+	/**
+	 * Deletes expired sessions a batch at a time, so the cleanup never holds
+	 * locks on a large part of the table. Attribute rows go with them (on
+	 * delete cascade). Safe to run on every node at once.
+	 */
+	@Scheduled(fixedDelayString = "${app.session.cleanup-ms:60000}")
+	public void deleteExpiredSessions() {
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		long now = System.currentTimeMillis();
+		int total = 0;
+		int deleted;
+		do {
+			deleted = jdbcTemplate.update(
+					"delete from SPRING_SESSION where EXPIRY_TIME < ? limit " + cleanupBatchSize, now);
+			total += deleted;
+		} while (deleted == cleanupBatchSize);
+		if (total > 0) {
+			log.debug("Deleted {} expired sessions", total);
+		}
+	}
+}
@@ -0,0 +1,87 @@
+package com.register.springboot.security;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import com.register.springboot.model.User;
+
+/**
+ * Immutable copy of the fields of a User that authenticated requests need.
+ * Safe to cache and share between threads; never attached to a JPA session.
+ */
+public final class UserSnapshot implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final int id;
+	private final String userName;
+	private final String password;
+	private final String email;
+	private final List<GrantedAuthority> authorities;
+
+	private UserSnapshot(int id, String userName, String password, String email,
+			List<GrantedAuthority> authorities) {
+		this.id = id;
+		this.userName = userName;
+		this.password = password;
+		this.email = email;
+		this.authorities = authorities;
+	}
+
+	/**
+	 * Takes a snapshot of a user entity.
+	 * 
+	 * @param user the entity to copy.
+	 * @return the snapshot.
+	 */
+	public static UserSnapshot of(User user) {
+		String roles = user.getRoles() != null ? user.getRoles() : "";
+		List<GrantedAuthority> authorities = Arrays.stream(roles.split(","))
+				.map(String::trim)
+				.filter(role -> !role.isEmpty())
+				.map(SimpleGrantedAuthority::new)
+				.collect(Collectors.toList());
+		return new UserSnapshot(user.getId(), user.getUserName(), user.getPassword(), user.getEmail(),
+				Collections.unmodifiableList(authorities));
+	}
+
+	/**
+	 * Returns a User carrying only id and username, usable as an association
+	 * reference (e.g. Order.user) without loading the row.
+	 * 
+	 * @return a new, detached User reference.
+	 */
+	public User toUserReference() {
+		User user = new User();
+		user.setId(id);
+		user.setUserName(userName);
+		return user;
+	}
+
+	public int getId() {
+		return id;
+	}
+
+	public String getUserName() {
+		return userName;
+	}
+
+	public String getPassword() {
+		return password;
+	}
+
+	public String getEmail() {
+		return email;
+	}
+
+	public List<GrantedAuthority> getAuthorities() {
+		return authorities;
+	}
+
+}
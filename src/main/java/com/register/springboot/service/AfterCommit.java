@@ -0,0 +1,32 @@
+package com.register.springboot.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * AfterCommit - Applies in-memory changes only once the database change is committed
+ * Caches, counters and analytics must not show a write that is later rolled
+ * back. Inside a transaction the change is deferred until it commits (and
+ * dropped on rollback); outside one there is nothing to wait for.
+ */
+final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    /**
+     * Runs the change after the current transaction commits, or now if there is none
+     */
+    static void run(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+}
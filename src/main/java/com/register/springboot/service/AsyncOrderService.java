@@ -0,0 +1,222 @@
+package com.register.springboot.service;
+
+import com.register.springboot.model.Order;
+import com.register.springboot.model.OrderHistoryItem;
+import com.register.springboot.model.Product;
+import com.register.springboot.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AsyncOrderService - Optional asynchronous order placement
+ *
+ * When enabled (app.orders.async.enabled=true) the controller only enqueues an
+ * order and answers with a tracking id. Worker threads drain the bounded queue
+ * in batches and run them through OrderService.placeOrders (validation, pricing,
+ * stock and a batched insert). Until then the order shows as PENDING on
+ * "My Orders". Stored orders carry their tracking id; an order that cannot be
+ * placed is stored as REJECTED with the reason. Queued orders live in memory
+ * only and are lost if the JVM dies.
+ */
+@Service
+public class AsyncOrderService {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncOrderService.class);
+
+    @Autowired
+    private OrderService orderService;
+
+    @Value("${app.orders.async.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.orders.async.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.orders.async.workers:2}")
+    private int workers;
+
+    @Value("${app.orders.async.batch-size:100}")
+    private int batchSize;
+
+    private BlockingQueue<QueuedOrder> queue;
+    private ExecutorService workerPool;
+    private volatile boolean running;
+
+    // Orders accepted into the queue but not yet stored, by tracking id
+    private final Map<String, QueuedOrder> pending = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        AtomicInteger threadNumber = new AtomicInteger();
+        workerPool = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "order-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workers; i++) {
+            workerPool.execute(this::drainLoop);
+        }
+    }
+
+    /**
+     * Stop taking new work and let the workers store what is still queued
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (workerPool == null) {
+            return;
+        }
+        running = false;
+        workerPool.shutdown();
+        if (!workerPool.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("{} queued orders were not stored before shutdown", queue.size());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queue an order for asynchronous placement
+     *
+     * @param order   Order details from form
+     * @param user    Current logged-in user
+     * @param product Product being ordered
+     * @return Tracking id, or null if async mode is off or the queue is full
+     */
+    public String submit(Order order, User user, Product product) {
+        if (!enabled || !running) {
+            return null;
+        }
+        order.setUser(user);
+        order.setProduct(product);
+        if (order.getQuantity() == null || order.getQuantity() < 1) {
+            order.setQuantity(1);
+        }
+        order.setTotalPrice(product.getPrice() * order.getQuantity());
+        order.setStatus("PENDING");
+
+        QueuedOrder queued = new QueuedOrder(UUID.randomUUID().toString(), order);
+        order.setTrackingId(queued.trackingId);
+        pending.put(queued.trackingId, queued);
+        if (!queue.offer(queued)) {
+            pending.remove(queued.trackingId);
+            return null;
+        }
+        return queued.trackingId;
+    }
+
+    /**
+     * Orders of a user that are still waiting in the queue, newest first
+     */
+    public List<OrderHistoryItem> getPendingOrders(User user) {
+        List<OrderHistoryItem> items = new ArrayList<>();
+        if (pending.isEmpty()) {
+            return items;
+        }
+        for (QueuedOrder queued : pending.values()) {
+            Order order = queued.order;
+            if (order.getUser().getId() == user.getId()) {
+                items.add(new OrderHistoryItem(null, order.getOrderDate(), "PENDING",
+                        order.getQuantity(), order.getTotalPrice(), order.getProduct().getName()));
+            }
+        }
+        items.sort((a, b) -> b.getOrderDate().compareTo(a.getOrderDate()));
+        return items;
+    }
+
+    /**
+     * Number of orders waiting to be stored
+     */
+    public int getQueueSize() {
+        return queue != null ? queue.size() : 0;
+    }
+
+    // Worker loop: block for one order, then take whatever else is queued up to batchSize
+    private void drainLoop() {
+        List<QueuedOrder> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                QueuedOrder first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                process(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void process(List<QueuedOrder> batch) {
+        List<Order> orders = new ArrayList<>(batch.size());
+        for (QueuedOrder queued : batch) {
+            orders.add(queued.order);
+        }
+        try {
+            orderService.placeOrders(orders);
+        } catch (RuntimeException e) {
+            // One bad order must not sink the others - retry them one by one
+            log.warn("Order batch of {} failed, retrying individually: {}", batch.size(), e.getMessage());
+            for (QueuedOrder queued : batch) {
+                try {
+                    orderService.placeOrders(List.of(queued.order));
+                } catch (RuntimeException single) {
+                    storeRejected(queued, single);
+                }
+            }
+        }
+        for (QueuedOrder queued : batch) {
+            pending.remove(queued.trackingId);
+        }
+    }
+
+    // The customer was told the order was received - keep it, as REJECTED with the reason
+    private void storeRejected(QueuedOrder queued, RuntimeException failure) {
+        log.warn("Queued order {} could not be placed, storing it as rejected: {}",
+                queued.trackingId, failure.getMessage());
+        try {
+            orderService.storeRejected(queued.order, "Order could not be processed: " + failure.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Dropping queued order {} (user {}, product {}): {}", queued.trackingId,
+                    queued.order.getUser().getId(), queued.order.getProduct().getId(), e.getMessage());
+        }
+    }
+
+    private static class QueuedOrder {
+        private final String trackingId;
+        private final Order order;
+
+        QueuedOrder(String trackingId, Order order) {
+            this.trackingId = trackingId;
+            this.order = order;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.register.springboot.service;
+
+import com.register.springboot.model.OrderStatusSummary;
+import com.register.springboot.repository.OrderRepository;
+import com.register.springboot.repository.ProductRepository;
+import com.register.springboot.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * DashboardCounters - Live totals for the admin dashboard
+ *
+ * Seeded from the database once the application is ready, then kept current by
+ * entity lifecycle callbacks (EntityCountListener) and by code that writes
+ * outside JPA. Changes are applied after commit. A periodic reconciliation
+ * against the database corrects any drift (rollbacks, other nodes, manual SQL).
+ */
+@Service
+public class DashboardCounters {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardCounters.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private final AtomicLong users = new AtomicLong();
+    private final AtomicLong products = new AtomicLong();
+    private final ConcurrentMap<String, AtomicLong> ordersByStatus = new ConcurrentHashMap<>();
+
+    // Increments before the first reconciliation would be counted twice
+    private volatile boolean seeded;
+
+    // ========================================
+    // READ
+    // ========================================
+
+    public long getUserCount() {
+        ensureSeeded();
+        return users.get();
+    }
+
+    public long getProductCount() {
+        ensureSeeded();
+        return products.get();
+    }
+
+    /**
+     * Order count per status (dashboard card and GET /admin/orders/status)
+     * Read from the counters, so it costs no query however often it is called.
+     */
+    public OrderStatusSummary getOrderStatusSummary() {
+        ensureSeeded();
+        Map<String, Long> counts = new HashMap<>();
+        ordersByStatus.forEach((status, count) -> counts.put(status, count.get()));
+        return new OrderStatusSummary(counts, Instant.now());
+    }
+
+    // ========================================
+    // UPDATE (applied after commit)
+    // ========================================
+
+    public void userAdded(int delta) {
+        afterCommit(() -> users.addAndGet(delta));
+    }
+
+    public void productAdded(int delta) {
+        afterCommit(() -> products.addAndGet(delta));
+    }
+
+    /**
+     * Orders added (delta > 0) or removed (delta < 0) with the given status
+     */
+    public void ordersAdded(String status, int delta) {
+        afterCommit(() -> statusCounter(status).addAndGet(delta));
+    }
+
+    public void orderStatusChanged(String from, String to) {
+        if (from == null ? to == null : from.equals(to)) {
+            return;
+        }
+        afterCommit(() -> {
+            statusCounter(from).decrementAndGet();
+            statusCounter(to).incrementAndGet();
+        });
+    }
+
+    private AtomicLong statusCounter(String status) {
+        return ordersByStatus.computeIfAbsent(status != null ? status : "UNKNOWN", s -> new AtomicLong());
+    }
+
+    // Before seeding, the first reconciliation will count the change anyway
+    private void afterCommit(Runnable change) {
+        if (seeded) {
+            AfterCommit.run(change);
+        }
+    }
+
+    // ========================================
+    // RECONCILE WITH THE DATABASE
+    // ========================================
+
+    /**
+     * Reload every counter from the database
+     * Runs at startup and then every app.dashboard.reconcile-ms
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.dashboard.reconcile-ms:300000}",
+            fixedDelayString = "${app.dashboard.reconcile-ms:300000}")
+    public synchronized void reconcile() {
+        long userCount = userRepository.count();
+        long productCount = productRepository.count();
+        Map<String, Long> statusCounts = new HashMap<>();
+        for (Object[] row : orderRepository.countGroupedByStatus()) {
+            String status = row[0] != null ? (String) row[0] : "UNKNOWN";
+            statusCounts.merge(status, ((Number) row[1]).longValue(), Long::sum);
+        }
+
+        Map<String, Long> counted = new HashMap<>();
+        ordersByStatus.forEach((status, count) -> counted.put(status, count.get()));
+        counted.values().removeIf(count -> count == 0);
+        if (seeded && (users.get() != userCount || products.get() != productCount || !counted.equals(statusCounts))) {
+            log.info("Dashboard counters drifted, corrected: users {}->{}, products {}->{}, orders {}->{}",
+                    users.get(), userCount, products.get(), productCount, counted, statusCounts);
+        }
+        users.set(userCount);
+        products.set(productCount);
+        ordersByStatus.keySet().retainAll(statusCounts.keySet());
+        statusCounts.forEach((status, count) -> statusCounter(status).set(count));
+        seeded = true;
+    }
+
+    private void ensureSeeded() {
+        if (!seeded) {
+            reconcile();
+        }
+    }
+}
@@ -0,0 +1,506 @@
+package com.register.springboot.service;
+
+import com.register.springboot.model.OrderFact;
+import com.register.springboot.model.OrderStatusSummary;
+import com.register.springboot.model.Product;
+import com.register.springboot.model.RevenueReport;
+import com.register.springboot.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * OrderAnalytics - In-memory columnar copy of the orders for dashboard reports
+ *
+ * Every order is one entry in a set of primitive arrays: product, customer,
+ * quantity, total in cents, status, day, state and city. Products, customers,
+ * states and cities are stored as small dictionary codes, so a report is one
+ * pass over a few arrays into per-group totals, without touching the orders
+ * table. Large tables are split into chunks that are aggregated in parallel.
+ * Memory is about 45 bytes per order plus the dictionaries.
+ *
+ * Loaded once the application is ready, appended to after every order commits
+ * (OrderService), and rebuilt every app.analytics.reload-ms to pick up changes
+ * made elsewhere (other instances, deleted users, manual SQL).
+ */
+@Service
+public class OrderAnalytics {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderAnalytics.class);
+
+    /**
+     * What a report is grouped by
+     */
+    public enum Grouping {
+        PRODUCT, CUSTOMER, STATE, CITY, DAY
+    }
+
+    // Status code of anything not in OrderStatusSummary.STATUSES
+    private static final byte UNKNOWN_STATUS = (byte) OrderStatusSummary.STATUSES.size();
+
+    // Day of orders without a date; outside every date range, so never reported
+    private static final int NO_DAY = Integer.MIN_VALUE;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Orders from which a report is aggregated in parallel chunks
+    @Value("${app.analytics.parallel-threshold:200000}")
+    private int parallelThreshold;
+
+    // Appends and status changes take the write lock, reports the read lock
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Columns columns = new Columns(1024);
+
+    // Changes made while a reload reads the table; replayed onto the new columns
+    private List<Consumer<Columns>> duringReload;
+
+    // ========================================
+    // LOAD
+    // ========================================
+
+    /**
+     * Rebuild the columns from the orders table
+     * Runs at startup and then every app.analytics.reload-ms. Reports keep
+     * using the old columns until the new ones are complete.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.analytics.reload-ms:600000}",
+            fixedDelayString = "${app.analytics.reload-ms:600000}")
+    public synchronized void reload() {
+        long started = System.nanoTime();
+        Columns fresh;
+        lock.writeLock().lock();
+        try {
+            fresh = new Columns(Math.max(1024, columns.size));
+            duringReload = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            readOnly.executeWithoutResult(status -> {
+                try (Stream<OrderFact> facts = orderRepository.streamForAnalytics()) {
+                    facts.forEach(fresh::append);
+                }
+            });
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                duringReload = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (Consumer<Columns> change : duringReload) {
+                change.accept(fresh);
+            }
+            duringReload = null;
+            columns = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Loaded {} orders for analytics in {} ms", fresh.size, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // ========================================
+    // UPDATE (called by OrderService after commit)
+    // ========================================
+
+    /**
+     * Add newly committed orders (orders already present are skipped)
+     */
+    public void append(List<OrderFact> facts) {
+        change(columns -> {
+            for (OrderFact fact : facts) {
+                columns.append(fact);
+            }
+        });
+    }
+
+    /**
+     * Record a committed status change
+     */
+    public void statusChanged(long orderId, String status) {
+        change(columns -> columns.setStatus(orderId, status));
+    }
+
+    private void change(Consumer<Columns> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(columns);
+            if (duringReload != null) {
+                duringReload.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Number of orders held
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return columns.size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ========================================
+    // REPORTS
+    // ========================================
+
+    /**
+     * Orders, units and revenue per group
+     *
+     * @param by     Grouping of the lines
+     * @param from   First order day (inclusive), or null for no lower bound
+     * @param to     Last order day (inclusive), or null for no upper bound
+     * @param status Only orders with this status, or null for all
+     * @param limit  Maximum number of lines (highest revenue first; by day: earliest first), 0 for all
+     */
+    public RevenueReport report(Grouping by, LocalDate from, LocalDate to, String status, int limit) {
+        long started = System.nanoTime();
+        Map<Long, String> productNames = by == Grouping.PRODUCT ? productNames() : Collections.emptyMap();
+
+        lock.readLock().lock();
+        try {
+            Columns c = columns;
+            int n = c.size;
+            // Clamped to the days that have orders, which also bounds the number of day groups
+            int fromDay = Math.max(from != null ? (int) from.toEpochDay() : c.minDay, c.minDay);
+            int toDay = Math.min(to != null ? (int) to.toEpochDay() : c.maxDay, c.maxDay);
+            int statusMask = status != null ? 1 << statusCode(status) : -1;
+
+            int[] keys;
+            int keyOffset = 0;
+            int groups;
+            switch (by) {
+                case PRODUCT:
+                    keys = c.products;
+                    groups = c.productIds.size();
+                    break;
+                case CUSTOMER:
+                    keys = c.customers;
+                    groups = c.customerIds.size();
+                    break;
+                case STATE:
+                    keys = c.states;
+                    groups = c.stateNames.size();
+                    break;
+                case CITY:
+                    keys = c.cities;
+                    groups = c.cityNames.size();
+                    break;
+                default:
+                    keys = c.days;
+                    keyOffset = fromDay;
+                    groups = toDay >= fromDay ? toDay - fromDay + 1 : 0;
+            }
+
+            Totals totals;
+            if (groups == 0) {
+                totals = new Totals(0);
+            } else if (n < parallelThreshold) {
+                totals = aggregate(c, keys, keyOffset, groups, fromDay, toDay, statusMask, 0, n);
+            } else {
+                // The read lock held here keeps the arrays unchanged while the workers scan them
+                int chunks = Math.max(1, ForkJoinPool.getCommonPoolParallelism());
+                int chunkSize = (n + chunks - 1) / chunks;
+                int[] chunkKeys = keys;
+                int chunkOffset = keyOffset;
+                int chunkGroups = groups;
+                totals = IntStream.range(0, chunks).parallel()
+                        .mapToObj(chunk -> aggregate(c, chunkKeys, chunkOffset, chunkGroups, fromDay, toDay,
+                                statusMask, chunk * chunkSize, Math.min(n, (chunk + 1) * chunkSize)))
+                        .reduce(Totals::add)
+                        .orElseGet(() -> new Totals(chunkGroups));
+            }
+
+            List<RevenueReport.Line> lines = new ArrayList<>();
+            long orders = 0;
+            long units = 0;
+            long cents = 0;
+            for (int g = 0; g < groups; g++) {
+                if (totals.orders[g] == 0) {
+                    continue;
+                }
+                orders += totals.orders[g];
+                units += totals.units[g];
+                cents += totals.cents[g];
+                String key = key(c, by, g, keyOffset);
+                String label = by == Grouping.PRODUCT ? productNames.get(c.productIds.value(g)) : null;
+                lines.add(new RevenueReport.Line(key, label, totals.orders[g], totals.units[g], totals.cents[g]));
+            }
+            if (by != Grouping.DAY) {
+                lines.sort(Comparator.comparing(RevenueReport.Line::getRevenue).reversed());
+            }
+            if (limit > 0 && lines.size() > limit) {
+                lines = new ArrayList<>(lines.subList(0, limit));
+            }
+            return new RevenueReport(by.name().toLowerCase(Locale.ROOT), lines, orders, units, cents, n,
+                    (System.nanoTime() - started) / 1000);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Totals per group of the orders in [lo, hi) that match the day range and status mask
+    private static Totals aggregate(Columns c, int[] keys, int keyOffset, int groups, int fromDay, int toDay,
+            int statusMask, int lo, int hi) {
+        Totals totals = new Totals(groups);
+        long[] orders = totals.orders;
+        long[] units = totals.units;
+        long[] cents = totals.cents;
+        int[] days = c.days;
+        byte[] statuses = c.statuses;
+        int[] quantities = c.quantities;
+        long[] totalCents = c.cents;
+        for (int i = lo; i < hi; i++) {
+            int day = days[i];
+            if (day < fromDay || day > toDay || (statusMask & (1 << statuses[i])) == 0) {
+                continue;
+            }
+            int g = keys[i] - keyOffset;
+            orders[g]++;
+            units[g] += quantities[i];
+            cents[g] += totalCents[i];
+        }
+        return totals;
+    }
+
+    private static String key(Columns c, Grouping by, int group, int keyOffset) {
+        Object value;
+        switch (by) {
+            case PRODUCT:
+                value = c.productIds.value(group);
+                break;
+            case CUSTOMER:
+                value = c.customerIds.value(group);
+                break;
+            case STATE:
+                value = c.stateNames.value(group);
+                break;
+            case CITY:
+                value = c.cityNames.value(group);
+                break;
+            default:
+                value = LocalDate.ofEpochDay(keyOffset + group);
+        }
+        return value != null ? value.toString() : "UNKNOWN";
+    }
+
+    private Map<Long, String> productNames() {
+        Map<Long, String> names = new HashMap<>();
+        for (Product product : productService.getAllProducts()) {
+            names.put(product.getId(), product.getName());
+        }
+        return names;
+    }
+
+    private static byte statusCode(String status) {
+        int code = status != null ? OrderStatusSummary.STATUSES.indexOf(status) : -1;
+        return code >= 0 ? (byte) code : UNKNOWN_STATUS;
+    }
+
+    // ========================================
+    // STORAGE
+    // ========================================
+
+    // One array per field, entry i of every array is the same order; not thread-safe (see lock)
+    // Entries are kept in id order, so an order is found by binary search on ids
+    private static final class Columns {
+
+        private long[] ids;
+        private int[] products;
+        private int[] customers;
+        private int[] quantities;
+        private long[] cents;
+        private byte[] statuses;
+        private int[] days;
+        private int[] states;
+        private int[] cities;
+        private int size;
+
+        private long maxId = Long.MIN_VALUE;
+        private int minDay = Integer.MAX_VALUE;
+        private int maxDay = Integer.MIN_VALUE;
+
+        private final Dictionary<Long> productIds = new Dictionary<>();
+        private final Dictionary<Integer> customerIds = new Dictionary<>();
+        private final Dictionary<String> stateNames = new Dictionary<>();
+        private final Dictionary<String> cityNames = new Dictionary<>();
+
+        Columns(int capacity) {
+            ids = new long[capacity];
+            products = new int[capacity];
+            customers = new int[capacity];
+            quantities = new int[capacity];
+            cents = new long[capacity];
+            statuses = new byte[capacity];
+            days = new int[capacity];
+            states = new int[capacity];
+            cities = new int[capacity];
+        }
+
+        void append(OrderFact fact) {
+            // Ids mostly arrive in order; an older id is either a replay of an order already
+            // held or an order that committed late, which goes in its place among the newest
+            int i = size;
+            if (fact.getId() <= maxId) {
+                int found = indexOf(fact.getId());
+                if (found >= 0) {
+                    return;
+                }
+                i = -found - 1;
+            }
+            if (size == ids.length) {
+                grow();
+            }
+            if (i < size) {
+                shiftUp(i);
+            }
+            ids[i] = fact.getId();
+            products[i] = productIds.code(fact.getProductId());
+            customers[i] = customerIds.code(fact.getUserId());
+            quantities[i] = fact.getQuantity() != null ? fact.getQuantity() : 0;
+            cents[i] = fact.getTotalPrice() != null ? Math.round(fact.getTotalPrice() * 100) : 0;
+            statuses[i] = statusCode(fact.getStatus());
+            int day = fact.getOrderDate() != null ? (int) fact.getOrderDate().toLocalDate().toEpochDay() : NO_DAY;
+            days[i] = day;
+            states[i] = stateNames.code(fact.getState());
+            cities[i] = cityNames.code(fact.getCity());
+            size++;
+
+            maxId = Math.max(maxId, fact.getId());
+            if (day != NO_DAY) {
+                minDay = Math.min(minDay, day);
+                maxDay = Math.max(maxDay, day);
+            }
+        }
+
+        void setStatus(long orderId, String status) {
+            int i = indexOf(orderId);
+            if (i >= 0) {
+                statuses[i] = statusCode(status);
+            }
+        }
+
+        // Entry of the order, or (-(insertion point) - 1) if it is not held
+        private int indexOf(long orderId) {
+            return Arrays.binarySearch(ids, 0, size, orderId);
+        }
+
+        // Move entries from..size-1 one place up to free entry from (a few at the end, usually)
+        private void shiftUp(int from) {
+            int count = size - from;
+            System.arraycopy(ids, from, ids, from + 1, count);
+            System.arraycopy(products, from, products, from + 1, count);
+            System.arraycopy(customers, from, customers, from + 1, count);
+            System.arraycopy(quantities, from, quantities, from + 1, count);
+            System.arraycopy(cents, from, cents, from + 1, count);
+            System.arraycopy(statuses, from, statuses, from + 1, count);
+            System.arraycopy(days, from, days, from + 1, count);
+            System.arraycopy(states, from, states, from + 1, count);
+            System.arraycopy(cities, from, cities, from + 1, count);
+        }
+
+        private void grow() {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            products = Arrays.copyOf(products, capacity);
+            customers = Arrays.copyOf(customers, capacity);
+            quantities = Arrays.copyOf(quantities, capacity);
+            cents = Arrays.copyOf(cents, capacity);
+            statuses = Arrays.copyOf(statuses, capacity);
+            days = Arrays.copyOf(days, capacity);
+            states = Arrays.copyOf(states, capacity);
+            cities = Arrays.copyOf(cities, capacity);
+        }
+    }
+
+    // Distinct values numbered 0, 1, 2... in order of first appearance (null is a value too)
+    private static final class Dictionary<T> {
+
+        private final Map<T, Integer> codes = new HashMap<>();
+        private final List<T> values = new ArrayList<>();
+
+        int code(T value) {
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = values.size();
+                codes.put(value, code);
+                values.add(value);
+            }
+            return code;
+        }
+
+        T value(int code) {
+            return values.get(code);
+        }
+
+        int size() {
+            return values.size();
+        }
+    }
+
+    // Orders, units and cents per group
+    private static final class Totals {
+
+        private final long[] orders;
+        private final long[] units;
+        private final long[] cents;
+
+        Totals(int groups) {
+            orders = new long[groups];
+            units = new long[groups];
+            cents = new long[groups];
+        }
+
+        Totals add(Totals other) {
+            for (int g = 0; g < orders.length; g++) {
+                orders[g] += other.orders[g];
+                units[g] += other.units[g];
+                cents[g] += other.cents[g];
+            }
+            return this;
+        }
+    }
+}
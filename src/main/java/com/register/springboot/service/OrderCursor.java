@@ -0,0 +1,64 @@
+package com.register.springboot.service;
+
+import com.register.springboot.model.Order;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * OrderCursor - Position of an order in the (order_date, id) keyset
+ * Rendered as "orderDate_id" so it can travel in a URL query parameter
+ */
+public class OrderCursor {
+
+    private static final char SEPARATOR = '_';
+
+    private final LocalDateTime orderDate;
+    private final Long id;
+
+    public OrderCursor(LocalDateTime orderDate, Long id) {
+        this.orderDate = orderDate;
+        this.id = id;
+    }
+
+    /**
+     * Cursor pointing at the given order
+     */
+    public static OrderCursor of(Order order) {
+        return new OrderCursor(order.getOrderDate(), order.getId());
+    }
+
+    /**
+     * Parse a cursor token produced by toString()
+     *
+     * @return The cursor, or null if the token is missing or malformed
+     */
+    public static OrderCursor parse(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        int split = token.lastIndexOf(SEPARATOR);
+        if (split <= 0 || split == token.length() - 1) {
+            return null;
+        }
+        try {
+            LocalDateTime orderDate = LocalDateTime.parse(token.substring(0, split));
+            Long id = Long.valueOf(token.substring(split + 1));
+            return new OrderCursor(orderDate, id);
+        } catch (DateTimeParseException | NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public LocalDateTime getOrderDate() {
+        return orderDate;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return orderDate.toString() + SEPARATOR + id;
+    }
+}
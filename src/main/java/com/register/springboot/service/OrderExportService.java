@@ -0,0 +1,123 @@
+package com.register.springboot.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.register.springboot.model.OrderExportRow;
+import com.register.springboot.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * OrderExportService - Full order dumps as CSV or NDJSON
+ * Rows go from the database cursor to the writer one at a time, so memory
+ * use does not grow with the number of orders exported.
+ */
+@Service
+public class OrderExportService {
+
+    private static final String CSV_HEADER = "id,order_date,status,user_id,user_name,product_id,product_name,"
+            + "quantity,total_price,customer_name,city,state";
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Writes the matching orders as CSV (RFC 4180, with a header line)
+     *
+     * @param from   Earliest order date (inclusive), or null
+     * @param to     Latest order date (exclusive), or null
+     * @param status Order status, or null for all
+     * @param out    Destination; flushed but not closed
+     * @return Number of orders written
+     */
+    @Transactional(readOnly = true)
+    public long exportCsv(LocalDateTime from, LocalDateTime to, String status, Writer out) throws IOException {
+        out.write(CSV_HEADER);
+        out.write("\r\n");
+        long rows = 0;
+        try (Stream<OrderExportRow> orders = orderRepository.streamForExport(from, to, status)) {
+            for (Iterator<OrderExportRow> it = orders.iterator(); it.hasNext(); rows++) {
+                OrderExportRow row = it.next();
+                out.write(String.valueOf(row.getId()));
+                out.write(',');
+                out.write(row.getOrderDate() != null ? row.getOrderDate().toString() : "");
+                out.write(',');
+                out.write(csv(row.getStatus()));
+                out.write(',');
+                out.write(number(row.getUserId()));
+                out.write(',');
+                out.write(csv(row.getUserName()));
+                out.write(',');
+                out.write(number(row.getProductId()));
+                out.write(',');
+                out.write(csv(row.getProductName()));
+                out.write(',');
+                out.write(number(row.getQuantity()));
+                out.write(',');
+                out.write(row.getTotalPrice() != null ? BigDecimal.valueOf(row.getTotalPrice()).toPlainString() : "");
+                out.write(',');
+                out.write(csv(row.getCustomerName()));
+                out.write(',');
+                out.write(csv(row.getCity()));
+                out.write(',');
+                out.write(csv(row.getState()));
+                out.write("\r\n");
+            }
+        }
+        out.flush();
+        return rows;
+    }
+
+    /**
+     * Writes the matching orders as newline-delimited JSON, one object per line
+     * Same parameters as exportCsv.
+     */
+    @Transactional(readOnly = true)
+    public long exportNdjson(LocalDateTime from, LocalDateTime to, String status, Writer out) throws IOException {
+        long rows = 0;
+        try (Stream<OrderExportRow> orders = orderRepository.streamForExport(from, to, status);
+                SequenceWriter json = objectMapper.writer()
+                        .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                        .withRootValueSeparator("\n")
+                        .writeValues(out)) {
+            for (Iterator<OrderExportRow> it = orders.iterator(); it.hasNext(); rows++) {
+                json.write(it.next());
+            }
+        }
+        if (rows > 0) {
+            out.write('\n');
+        }
+        out.flush();
+        return rows;
+    }
+
+    private static String number(Number value) {
+        return value != null ? value.toString() : "";
+    }
+
+    // Quotes a field when it needs it, and defuses values a spreadsheet would run as a formula
+    private static String csv(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        char first = value.charAt(0);
+        if (first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r') {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
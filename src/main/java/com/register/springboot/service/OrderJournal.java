@@ -0,0 +1,537 @@
+package com.register.springboot.service;
+
+import com.register.springboot.model.Order;
+import com.register.springboot.model.OrderHistoryItem;
+import com.register.springboot.model.Product;
+import com.register.springboot.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * OrderJournal - Optional journaled order placement with write-behind to the database
+ *
+ * When enabled (app.orders.journal.enabled=true) an accepted order is appended
+ * to a memory-mapped journal file (OrderJournalFile) and the request is answered
+ * as soon as the file has been forced to disk. One flusher thread forces the
+ * file for every append that arrived while the previous force ran, so
+ * concurrent checkouts share a sync. A writer thread then reads the durable
+ * records in batches and stores them through OrderService.placeOrders (pricing,
+ * stock and a batched insert). The last stored sequence is kept in
+ * order_journal_checkpoint in the same transaction as the orders, so a record
+ * is stored exactly once, also when the application restarts and replays the
+ * journal. Until then the order shows as PENDING on "My Orders". An order that
+ * cannot be placed is stored as REJECTED with the reason instead, so an
+ * acknowledged order never just disappears. Stored orders carry the reference
+ * the customer was given (journal name and sequence) as their tracking id.
+ *
+ * The journal is local to one instance: app.orders.journal.name must differ
+ * between instances sharing a database, and each needs its own journal file.
+ */
+@Service
+public class OrderJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderJournal.class);
+
+    private static final String READ_CHECKPOINT =
+            "select applied_sequence from order_journal_checkpoint where journal_name = ?";
+    private static final String CREATE_CHECKPOINT =
+            "insert into order_journal_checkpoint (journal_name, applied_sequence) values (?, 0)";
+    private static final String UPDATE_CHECKPOINT =
+            "update order_journal_checkpoint set applied_sequence = ? where journal_name = ?";
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.orders.journal.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.orders.journal.path:data/order-journal.bin}")
+    private String path;
+
+    @Value("${app.orders.journal.name:default}")
+    private String name;
+
+    // Slots in a new journal file (256 bytes each)
+    @Value("${app.orders.journal.capacity:65536}")
+    private int capacity;
+
+    @Value("${app.orders.journal.batch-size:500}")
+    private int batchSize;
+
+    // How long a request waits for its record to reach the disk
+    @Value("${app.orders.journal.sync-timeout-ms:5000}")
+    private long syncTimeoutMillis;
+
+    // Pause before retrying while the database cannot be reached
+    @Value("${app.orders.journal.retry-ms:1000}")
+    private long retryMillis;
+
+    private OrderJournalFile file;
+    private TransactionTemplate transactionTemplate;
+    private Thread flusher;
+    private Thread writer;
+    private volatile boolean running;
+
+    // Appends, the flusher and the writer hand over through this monitor
+    private final Object lock = new Object();
+    private long nextSequence;              // guarded by lock
+    private long appendedSequence;          // guarded by lock
+    private volatile long durableSequence;  // written under lock
+    private volatile long appliedSequence;  // written by the writer thread
+    private volatile RuntimeException syncFailure;
+
+    // Journaled orders not yet stored, by sequence
+    private final ConcurrentNavigableMap<Long, PendingOrder> pending = new ConcurrentSkipListMap<>();
+
+    // ========================================
+    // LIFECYCLE
+    // ========================================
+
+    /**
+     * Open the journal and find the records the database does not have yet
+     * They are stored once the application is ready (see startWriter).
+     */
+    @PostConstruct
+    void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        file = OrderJournalFile.open(Paths.get(path), capacity);
+        appliedSequence = readCheckpoint();
+
+        List<OrderJournalFile.Record> unapplied = file.recover(appliedSequence);
+        for (OrderJournalFile.Record record : unapplied) {
+            Product product = productService.getProductById(record.productId);
+            if (product != null) {
+                pending.put(record.sequence, new PendingOrder(record, product));
+            }
+        }
+        long last = unapplied.isEmpty() ? appliedSequence : unapplied.get(unapplied.size() - 1).sequence;
+        nextSequence = last + 1;
+        appendedSequence = last;
+        durableSequence = last;
+        if (!unapplied.isEmpty()) {
+            log.info("Order journal {} has {} orders not yet stored (after sequence {}); replaying",
+                    file.getPath(), unapplied.size(), appliedSequence);
+        }
+
+        running = true;
+        flusher = new Thread(this::flushLoop, "order-journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Start storing journaled orders, once seed data and the rest of the application are in place
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startWriter() {
+        if (!running || writer != null) {
+            return;
+        }
+        writer = new Thread(this::writeLoop, "order-journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Stop taking orders, sync what was appended and store what the database can take
+     * Whatever is left stays in the journal and is replayed at the next start.
+     */
+    @PreDestroy
+    void stop() throws IOException, InterruptedException {
+        if (file == null) {
+            return;
+        }
+        synchronized (lock) {
+            running = false;
+            lock.notifyAll();
+        }
+        flusher.join(syncTimeoutMillis);
+        if (writer != null) {
+            writer.join(30_000);
+        }
+        long left = durableSequence - appliedSequence;
+        if (left > 0) {
+            log.warn("{} journaled orders were not stored before shutdown; they are replayed at the next start", left);
+        }
+        file.close();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // ========================================
+    // APPEND
+    // ========================================
+
+    /**
+     * Journal an order and wait until it is on disk
+     *
+     * @param order   Order details from form (already validated)
+     * @param user    Current logged-in user
+     * @param product Product being ordered
+     * @return Order reference, or null if journal mode is off, the journal is full
+     *         or a field does not fit its record - then the order is not journaled
+     * @throws IllegalStateException if the journal could not be synced; the order
+     *         may still be stored later, so it must not be placed another way
+     */
+    public String submit(Order order, User user, Product product) {
+        if (!enabled || !running || syncFailure != null) {
+            return null;
+        }
+        order.setUser(user);
+        order.setProduct(product);
+        if (order.getQuantity() == null || order.getQuantity() < 1) {
+            order.setQuantity(1);
+        }
+        order.setTotalPrice(product.getPrice() * order.getQuantity());
+        order.setStatus("PENDING");
+        if (order.getOrderDate() == null) {
+            order.setOrderDate(LocalDateTime.now());
+        }
+
+        OrderJournalFile.Record record = new OrderJournalFile.Record();
+        record.orderDate = order.getOrderDate();
+        record.productId = product.getId();
+        record.userId = user.getId();
+        record.quantity = order.getQuantity();
+        record.customerName = order.getCustomerName();
+        record.phone = order.getPhone();
+        record.city = order.getCity();
+        record.state = order.getState();
+        record.cardNumber = order.getCardNumber();
+        if (!OrderJournalFile.fits(record)) {
+            return null;
+        }
+
+        synchronized (lock) {
+            // The slot of this sequence still holds a record the writer has not stored
+            if (nextSequence - appliedSequence > file.getCapacity()) {
+                return null;
+            }
+            // Taken only once the record is written: a failed write must not leave a gap,
+            // recovery would stop at it and discard every later (acknowledged) record
+            record.sequence = nextSequence;
+            file.write(record);
+            nextSequence++;
+            appendedSequence = record.sequence;
+            pending.put(record.sequence, new PendingOrder(record, product));
+            lock.notifyAll();
+        }
+        awaitDurable(record.sequence);
+        order.setTrackingId(trackingId(record.sequence));
+        return order.getTrackingId();
+    }
+
+    // Reference the customer is given, stored as the order's tracking id
+    private String trackingId(long sequence) {
+        return name + "-" + sequence;
+    }
+
+    private void awaitDurable(long sequence) {
+        long deadline = System.currentTimeMillis() + syncTimeoutMillis;
+        synchronized (lock) {
+            while (durableSequence < sequence) {
+                if (syncFailure != null) {
+                    throw new IllegalStateException("Order journal could not be synced", syncFailure);
+                }
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    throw new IllegalStateException("Order journal sync timed out after " + syncTimeoutMillis + " ms");
+                }
+                try {
+                    lock.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for the order journal", e);
+                }
+            }
+        }
+    }
+
+    // Group commit: one force covers every record appended before it started
+    private void flushLoop() {
+        while (true) {
+            long target;
+            synchronized (lock) {
+                while (running && appendedSequence == durableSequence) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                if (appendedSequence == durableSequence) {
+                    return;
+                }
+                target = appendedSequence;
+            }
+            try {
+                file.force();
+            } catch (RuntimeException e) {
+                log.error("Order journal {} could not be synced; journal mode is off until restart", file.getPath(), e);
+                synchronized (lock) {
+                    syncFailure = e;
+                    lock.notifyAll();
+                }
+                return;
+            }
+            synchronized (lock) {
+                durableSequence = target;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    // ========================================
+    // WRITE-BEHIND
+    // ========================================
+
+    private void writeLoop() {
+        while (true) {
+            long durable;
+            synchronized (lock) {
+                while (running && appliedSequence >= durableSequence) {
+                    try {
+                        lock.wait(1000);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                durable = durableSequence;
+            }
+            if (appliedSequence >= durable) {
+                return;
+            }
+            if (!storeThrough(Math.min(durable, appliedSequence + batchSize))) {
+                if (!running) {
+                    return;
+                }
+                try {
+                    Thread.sleep(retryMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Store the records after appliedSequence up to the given one
+     *
+     * @return false if the database is unavailable; the records are tried again later
+     */
+    private boolean storeThrough(long last) {
+        long first = appliedSequence + 1;
+        List<OrderJournalFile.Record> records = new ArrayList<>((int) (last - first + 1));
+        for (long sequence = first; sequence <= last; sequence++) {
+            OrderJournalFile.Record record = file.read(sequence);
+            if (record != null) {
+                records.add(record);
+            } else {
+                log.error("Journaled order {} is unreadable and is skipped", sequence);
+            }
+        }
+
+        try {
+            store(records, last);
+            return true;
+        } catch (RuntimeException e) {
+            if (isDatabaseUnavailable(e)) {
+                log.warn("Database unavailable, {} journaled orders wait: {}", last - first + 1, e.getMessage());
+                return false;
+            }
+            // One bad order must not sink the others - retry them one by one, keeping bad ones as REJECTED
+            log.warn("Journal batch {}-{} failed, retrying individually: {}", first, last, e.getMessage());
+        }
+
+        try {
+            for (OrderJournalFile.Record record : records) {
+                try {
+                    store(List.of(record), record.sequence);
+                } catch (RuntimeException single) {
+                    if (isDatabaseUnavailable(single)) {
+                        throw single;
+                    }
+                    storeRejected(record, single);
+                }
+            }
+            store(List.of(), last);
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Database unavailable, journaled orders from {} wait: {}", appliedSequence + 1, e.getMessage());
+            return false;
+        }
+    }
+
+    private void store(List<OrderJournalFile.Record> records, long last) {
+        commitThrough(last, () -> {
+            if (records.isEmpty()) {
+                return;
+            }
+            List<Order> orders = toOrders(records);
+            orderService.placeOrders(orders);
+            for (Order order : orders) {
+                if (order.getId() == null) {
+                    // Its product was deleted after the order was journaled
+                    log.error("Journaled order {} could not be stored: {}",
+                            order.getTrackingId(), order.getRejectionReason());
+                }
+            }
+        });
+    }
+
+    // Keep an order that failed for a reason other than the database being down
+    private void storeRejected(OrderJournalFile.Record record, RuntimeException failure) {
+        String trackingId = trackingId(record.sequence);
+        log.warn("Journaled order {} could not be placed, storing it as rejected: {}",
+                trackingId, failure.getMessage());
+        try {
+            commitThrough(record.sequence, () -> orderService.storeRejected(toOrders(List.of(record)).get(0),
+                    "Order could not be processed: " + failure.getMessage()));
+        } catch (RuntimeException e) {
+            if (isDatabaseUnavailable(e)) {
+                throw e;
+            }
+            // Its user or product is gone, or an order with this tracking id is stored already
+            log.error("Dropping journaled order {} (user {}, product {}): {}", trackingId,
+                    record.userId, record.productId, e.getMessage());
+            store(List.of(), record.sequence);
+        }
+    }
+
+    // Orders and checkpoint in one transaction: either both are stored or neither
+    private void commitThrough(long last, Runnable storeOrders) {
+        if (last <= appliedSequence) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            storeOrders.run();
+            jdbcTemplate.update(UPDATE_CHECKPOINT, last, name);
+        });
+        appliedSequence = last;
+        pending.headMap(last, true).clear();
+    }
+
+    // Fresh entities per attempt: a failed placeOrders leaves its orders half filled in
+    private List<Order> toOrders(List<OrderJournalFile.Record> records) {
+        List<Order> orders = new ArrayList<>(records.size());
+        for (OrderJournalFile.Record record : records) {
+            User user = new User();
+            user.setId(record.userId);
+            Product product = new Product();
+            product.setId(record.productId);
+
+            Order order = new Order();
+            order.setUser(user);
+            order.setProduct(product);
+            order.setQuantity(record.quantity);
+            order.setOrderDate(record.orderDate);
+            order.setCustomerName(record.customerName);
+            order.setPhone(record.phone);
+            order.setCity(record.city);
+            order.setState(record.state);
+            order.setCardNumber(record.cardNumber);
+            order.setTrackingId(trackingId(record.sequence));
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    private static boolean isDatabaseUnavailable(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException;
+    }
+
+    private long readCheckpoint() {
+        List<Long> applied = jdbcTemplate.queryForList(READ_CHECKPOINT, Long.class, name);
+        if (applied.isEmpty()) {
+            jdbcTemplate.update(CREATE_CHECKPOINT, name);
+            return 0;
+        }
+        return applied.get(0);
+    }
+
+    // ========================================
+    // STATUS
+    // ========================================
+
+    /**
+     * Orders of a user that are journaled but not yet stored, newest first
+     */
+    public List<OrderHistoryItem> getPendingOrders(User user) {
+        List<OrderHistoryItem> items = new ArrayList<>();
+        if (pending.isEmpty()) {
+            return items;
+        }
+        for (PendingOrder order : pending.descendingMap().values()) {
+            if (order.userId == user.getId()) {
+                items.add(new OrderHistoryItem(null, order.orderDate, "PENDING",
+                        order.quantity, order.totalPrice, order.productName));
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Number of journaled orders on disk but not yet in the database
+     */
+    public long getBacklog() {
+        return file != null ? durableSequence - appliedSequence : 0;
+    }
+
+    // What "My Orders" shows for an order still in the journal
+    private static class PendingOrder {
+        private final int userId;
+        private final LocalDateTime orderDate;
+        private final int quantity;
+        private final double totalPrice;
+        private final String productName;
+
+        PendingOrder(OrderJournalFile.Record record, Product product) {
+            this.userId = record.userId;
+            this.orderDate = record.orderDate;
+            this.quantity = record.quantity;
+            this.totalPrice = product.getPrice() * record.quantity;
+            this.productName = product.getName();
+        }
+    }
+}
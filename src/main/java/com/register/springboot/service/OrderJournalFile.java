@@ -0,0 +1,280 @@
+package com.register.springboot.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * OrderJournalFile - Memory-mapped ring of fixed-layout order records
+ *
+ * Record n lives in slot n % capacity, so the file never grows. A slot is only
+ * reused once the record in it has been applied to the database (OrderJournal
+ * checks that before appending). Every record carries its sequence number and
+ * a CRC32, so after a crash complete records can be told from torn or stale ones.
+ * Appends must be serialized by the caller; reads of other slots may run alongside.
+ *
+ * Record layout (256 bytes, big-endian):
+ *   0 sequence (long, 0 = empty)   8 order date (epoch millis, UTC)
+ *  16 product id (long)           24 user id (int)      28 quantity (int)
+ *  32 customer name               96 phone             112 city
+ * 160 state                      208 card number      (each: length byte + ASCII)
+ * 252 CRC32 of bytes 0-251
+ */
+final class OrderJournalFile implements Closeable {
+
+    static final int RECORD_SIZE = 256;
+
+    private static final int SEQUENCE = 0;
+    private static final int ORDER_DATE = 8;
+    private static final int PRODUCT_ID = 16;
+    private static final int USER_ID = 24;
+    private static final int QUANTITY = 28;
+    private static final int CUSTOMER_NAME = 32;
+    private static final int PHONE = 96;
+    private static final int CITY = 112;
+    private static final int STATE = 160;
+    private static final int CARD_NUMBER = 208;
+    private static final int CHECKSUM = 252;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+
+    private OrderJournalFile(Path path, FileChannel channel, MappedByteBuffer buffer, int capacity) {
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Open the journal, creating it with the given number of slots if it does not exist
+     * An existing journal keeps the size it was created with: its records sit in
+     * slots that depend on it.
+     */
+    static OrderJournalFile open(Path path, int capacity) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        if (Files.notExists(path)) {
+            // Records hold card numbers: owner-only where the file system allows it
+            if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+                Files.createFile(path, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+            } else {
+                Files.createFile(path);
+            }
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long existing = channel.size();
+            if (existing > 0) {
+                if (existing % RECORD_SIZE != 0) {
+                    throw new IOException("Order journal " + path + " has a partial record (" + existing + " bytes)");
+                }
+                capacity = (int) (existing / RECORD_SIZE);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) capacity * RECORD_SIZE);
+            return new OrderJournalFile(path, channel, buffer, capacity);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Whether every text field of the record fits its fixed slot (ASCII, within length)
+     */
+    static boolean fits(Record record) {
+        return fits(record.customerName, PHONE - CUSTOMER_NAME)
+                && fits(record.phone, CITY - PHONE)
+                && fits(record.city, STATE - CITY)
+                && fits(record.state, CARD_NUMBER - STATE)
+                && fits(record.cardNumber, CHECKSUM - CARD_NUMBER);
+    }
+
+    /**
+     * Write a record into its slot (not yet durable - see force)
+     */
+    void write(Record record) {
+        ByteBuffer slot = slot(record.sequence);
+        slot.putLong(SEQUENCE, record.sequence);
+        slot.putLong(ORDER_DATE, record.orderDate.toInstant(ZoneOffset.UTC).toEpochMilli());
+        slot.putLong(PRODUCT_ID, record.productId);
+        slot.putInt(USER_ID, record.userId);
+        slot.putInt(QUANTITY, record.quantity);
+        putText(slot, CUSTOMER_NAME, PHONE - CUSTOMER_NAME, record.customerName);
+        putText(slot, PHONE, CITY - PHONE, record.phone);
+        putText(slot, CITY, STATE - CITY, record.city);
+        putText(slot, STATE, CARD_NUMBER - STATE, record.state);
+        putText(slot, CARD_NUMBER, CHECKSUM - CARD_NUMBER, record.cardNumber);
+        slot.putInt(CHECKSUM, checksum(slot));
+    }
+
+    /**
+     * The record with this sequence, or null if its slot holds another or a torn one
+     */
+    Record read(long sequence) {
+        Record record = decode(slot(sequence));
+        return record != null && record.sequence == sequence ? record : null;
+    }
+
+    /**
+     * Flush all written records to the storage device
+     * (Java 11 can only force the whole mapping; pages that are already clean cost nothing)
+     */
+    void force() {
+        buffer.force();
+    }
+
+    /**
+     * Records after the given sequence that survived a restart, in order
+     * Stops at the first missing or torn record: anything after a gap was never
+     * acknowledged (acknowledgement waits for a force covering all earlier records),
+     * so those slots are cleared rather than replayed later.
+     */
+    List<Record> recover(long appliedSequence) {
+        List<Record> newer = new ArrayList<>();
+        for (int i = 0; i < capacity; i++) {
+            Record record = decode(slot(i));
+            if (record != null && record.sequence > appliedSequence) {
+                newer.add(record);
+            }
+        }
+        newer.sort(Comparator.comparingLong(r -> r.sequence));
+
+        List<Record> recovered = new ArrayList<>(newer.size());
+        long expected = appliedSequence + 1;
+        for (Record record : newer) {
+            if (record.sequence == expected) {
+                recovered.add(record);
+                expected++;
+            } else {
+                slot(record.sequence).putLong(SEQUENCE, 0);
+            }
+        }
+        if (recovered.size() < newer.size()) {
+            force();
+        }
+        return recovered;
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    // ==================== Encoding ====================
+
+    // View of one slot, positioned at 0; a fresh view per call keeps concurrent readers apart
+    private ByteBuffer slot(long sequence) {
+        int offset = (int) (sequence % capacity) * RECORD_SIZE;
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset).limit(offset + RECORD_SIZE);
+        return view.slice();
+    }
+
+    private static Record decode(ByteBuffer slot) {
+        long sequence = slot.getLong(SEQUENCE);
+        if (sequence <= 0 || slot.getInt(CHECKSUM) != checksum(slot)) {
+            return null;
+        }
+        Record record = new Record();
+        record.sequence = sequence;
+        record.orderDate = LocalDateTime.ofInstant(Instant.ofEpochMilli(slot.getLong(ORDER_DATE)), ZoneOffset.UTC);
+        record.productId = slot.getLong(PRODUCT_ID);
+        record.userId = slot.getInt(USER_ID);
+        record.quantity = slot.getInt(QUANTITY);
+        record.customerName = getText(slot, CUSTOMER_NAME);
+        record.phone = getText(slot, PHONE);
+        record.city = getText(slot, CITY);
+        record.state = getText(slot, STATE);
+        record.cardNumber = getText(slot, CARD_NUMBER);
+        return record;
+    }
+
+    private static int checksum(ByteBuffer slot) {
+        CRC32 crc = new CRC32();
+        ByteBuffer content = slot.duplicate();
+        content.position(0).limit(CHECKSUM);
+        crc.update(content);
+        return (int) crc.getValue();
+    }
+
+    private static boolean fits(String text, int width) {
+        if (text == null) {
+            return true;
+        }
+        if (text.length() >= width) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 127) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Length byte (0xFF = null) followed by the ASCII bytes; the rest of the field is zeroed
+    private static void putText(ByteBuffer slot, int offset, int width, String text) {
+        byte[] bytes = text != null ? text.getBytes(StandardCharsets.US_ASCII) : new byte[0];
+        slot.put(offset, text != null ? (byte) bytes.length : (byte) 0xFF);
+        for (int i = 1; i < width; i++) {
+            slot.put(offset + i, i <= bytes.length ? bytes[i - 1] : 0);
+        }
+    }
+
+    private static String getText(ByteBuffer slot, int offset) {
+        int length = slot.get(offset) & 0xFF;
+        if (length == 0xFF) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = slot.get(offset + 1 + i);
+        }
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * One journaled order: what the customer submitted, before pricing and stock
+     */
+    static final class Record {
+        long sequence;
+        LocalDateTime orderDate;
+        long productId;
+        int userId;
+        int quantity;
+        String customerName;
+        String phone;
+        String city;
+        String state;
+        String cardNumber;
+    }
+}
@@ -0,0 +1,41 @@
+package com.register.springboot.service;
+
+import com.register.springboot.model.Order;
+import java.util.List;
+
+/**
+ * OrderPage - One keyset page of orders, newest first
+ * Cursors are null when there is no page in that direction
+ */
+public class OrderPage {
+
+    private final List<Order> orders;
+    private final String previousCursor;
+    private final String nextCursor;
+
+    public OrderPage(List<Order> orders, String previousCursor, String nextCursor) {
+        this.orders = orders;
+        this.previousCursor = previousCursor;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Order> getOrders() {
+        return orders;
+    }
+
+    public String getPreviousCursor() {
+        return previousCursor;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasPrevious() {
+        return previousCursor != null;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
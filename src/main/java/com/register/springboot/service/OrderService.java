@@ -1,14 +1,32 @@
 package com.register.springboot.service;
 
+import com.register.springboot.cache.LruCache;
+import com.register.springboot.datasource.ReplicaRouting;
+import com.register.springboot.model.BatchOrderLine;
+import com.register.springboot.model.BatchOrderResult;
 import com.register.springboot.model.Order;
+import com.register.springboot.model.OrderFact;
+import com.register.springboot.model.OrderHistoryItem;
 import com.register.springboot.model.Product;
 import com.register.springboot.model.User;
 import com.register.springboot.repository.OrderRepository;
 import com.register.springboot.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
 /**
  * OrderService - Business logic for Order operations
@@ -23,24 +41,49 @@ public class OrderService {
     @Autowired
     private ProductRepository productRepository;
 
-    // ========================================
-    // VALIDATION PATTERNS (Same as Assignment 5)
-    // ========================================
-
-    // Name: Only letters and spaces allowed
-    private static final Pattern NAME_PATTERN = Pattern.compile("^[a-zA-Z ]+$");
-
-    // Phone: 10 digits, must start with 7, 8, or 9
-    private static final Pattern PHONE_PATTERN = Pattern.compile("^[789]\\d{9}$");
+    @Autowired
+    private ProductService productService;
 
-    // City: Only letters and spaces
-    private static final Pattern CITY_PATTERN = Pattern.compile("^[a-zA-Z ]+$");
+    @Autowired
+    private DashboardCounters dashboardCounters;
 
-    // State: Only letters and spaces
-    private static final Pattern STATE_PATTERN = Pattern.compile("^[a-zA-Z ]+$");
+    @Autowired
+    private MeterRegistry meterRegistry;
 
-    // Card Number: Exactly 16 digits
-    private static final Pattern CARD_PATTERN = Pattern.compile("^\\d{16}$");
+    @Autowired
+    private OrderAnalytics orderAnalytics;
+
+    // Lengths of the orders.rejection_reason column and of the text columns the customer fills in
+    private static final int REJECTION_REASON_LENGTH = 500;
+    private static final int TEXT_COLUMN_LENGTH = 255;
+
+    // app.orders.outcome{status=ACCEPTED|REJECTED}: every order decided by this service,
+    // counted once its transaction commits (a rolled-back batch that is retried is counted once)
+    private Counter acceptedOrders;
+    private Counter rejectedOrders;
+
+    // Default and maximum number of orders per admin page
+    @Value("${app.orders.page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${app.orders.max-page-size:500}")
+    private int maxPageSize;
+
+    // Replica reads may be this far behind; a customer who ordered more recently reads from the primary
+    @Value("${app.datasource.replica.max-lag-ms:2000}")
+    private long maxReplicaLagMillis;
+
+    // User id -> time of the user's last committed order
+    private final LruCache<Integer, Long> recentWriters = new LruCache<>(10_000);
+
+    @PostConstruct
+    void registerMetrics() {
+        acceptedOrders = Counter.builder("app.orders.outcome").tag("status", "ACCEPTED")
+                .description("Orders accepted").register(meterRegistry);
+        rejectedOrders = Counter.builder("app.orders.outcome").tag("status", "REJECTED")
+                .description("Orders rejected (invalid details, no stock or unknown product)")
+                .register(meterRegistry);
+    }
 
     // ========================================
     // VALIDATE ORDER DETAILS
@@ -48,44 +91,14 @@ public class OrderService {
 
     /**
      * Validates order details and returns error messages if any
+     * The result is remembered on the order, so placing it afterwards
+     * does not validate it a second time.
      * 
      * @param order The order to validate
      * @return Empty string if valid, error messages if invalid
      */
     public String validateOrder(Order order) {
-        StringBuilder errors = new StringBuilder();
-
-        // Validate Name
-        if (order.getCustomerName() == null ||
-                !NAME_PATTERN.matcher(order.getCustomerName()).matches()) {
-            errors.append("Name must contain only letters. ");
-        }
-
-        // Validate Phone
-        if (order.getPhone() == null ||
-                !PHONE_PATTERN.matcher(order.getPhone()).matches()) {
-            errors.append("Phone must be 10 digits starting with 7, 8, or 9. ");
-        }
-
-        // Validate City
-        if (order.getCity() == null ||
-                !CITY_PATTERN.matcher(order.getCity()).matches()) {
-            errors.append("City must contain only letters. ");
-        }
-
-        // Validate State
-        if (order.getState() == null ||
-                !STATE_PATTERN.matcher(order.getState()).matches()) {
-            errors.append("State must contain only letters. ");
-        }
-
-        // Validate Card Number
-        if (order.getCardNumber() == null ||
-                !CARD_PATTERN.matcher(order.getCardNumber()).matches()) {
-            errors.append("Card number must be exactly 16 digits. ");
-        }
-
-        return errors.toString();
+        return OrderValidator.messages(OrderValidator.validate(order));
     }
 
     // ========================================
@@ -93,13 +106,17 @@ public class OrderService {
     // ========================================
 
     /**
-     * Places an order after validation
+     * Places an order after validation and stock reservation
+     * The stock is taken with one conditional UPDATE, so concurrent orders
+     * for the same product can never oversell it. If the order insert fails
+     * the transaction rolls the reservation back.
      * 
      * @param order     Order details from form
      * @param user      Current logged-in user
      * @param productId ID of the product being ordered
      * @return Saved order with status (ACCEPTED or REJECTED)
      */
+    @Transactional
     public Order placeOrder(Order order, User user, Long productId) {
         // Get product from database
         Product product = productRepository.findById(productId).orElse(null);
@@ -117,40 +134,353 @@ public class OrderService {
         }
         order.setTotalPrice(product.getPrice() * order.getQuantity());
 
-        // Validate order details
-        String validationErrors = validateOrder(order);
+        // Validate order details and reserve stock
+        decideOutcome(order, product);
+
+        // Save and return
+        Order saved = orderRepository.save(order);
+        rememberWrite(user);
+        recordForAnalytics(List.of(saved));
+        return saved;
+    }
+
+    // ========================================
+    // PLACE ORDERS IN BULK
+    // ========================================
+
+    /**
+     * Places many orders in one transaction
+     * Every line gets the same checks as placeOrder. Lines for unknown
+     * products are reported but not stored.
+     *
+     * @param lines Order lines in request order
+     * @param user  Current logged-in user (owner of all orders)
+     * @return One result per line, in the same order
+     */
+    @Transactional
+    public List<BatchOrderResult> placeOrders(List<BatchOrderLine> lines, User user) {
+        List<Order> orders = new ArrayList<>(lines.size());
+        for (BatchOrderLine line : lines) {
+            Order order = new Order();
+            order.setUser(user);
+            order.setProduct(productReference(line.getProductId()));
+            order.setQuantity(line.getQuantity());
+            order.setCustomerName(line.getCustomerName());
+            order.setPhone(line.getPhone());
+            order.setCity(line.getCity());
+            order.setState(line.getState());
+            order.setCardNumber(line.getCardNumber());
+            orders.add(order);
+        }
+
+        placeOrders(orders);
+
+        List<BatchOrderResult> results = new ArrayList<>(orders.size());
+        for (int i = 0; i < orders.size(); i++) {
+            Order order = orders.get(i);
+            results.add(new BatchOrderResult(i, order.getId(), order.getStatus(), order.getRejectionReason()));
+        }
+        return results;
+    }
+
+    /**
+     * Places many orders (possibly of different users) in one transaction
+     * Each order must carry its user and a product with at least the id set.
+     * Products are loaded once per batch and all stored orders (accepted and
+     * rejected) are inserted with JDBC batches. Orders for unknown products
+     * are marked REJECTED but not stored, so their id stays null.
+     * Stock is taken per product in ascending id order, so batches sharing
+     * products lock their rows in the same order and cannot deadlock.
+     *
+     * @param orders Orders to place; status, total and id are filled in place
+     */
+    @Transactional
+    public void placeOrders(List<Order> orders) {
+        // Resolve every product once
+        Set<Long> productIds = new HashSet<>();
+        for (Order order : orders) {
+            if (order.getProduct() != null && order.getProduct().getId() != null) {
+                productIds.add(order.getProduct().getId());
+            }
+        }
+        Map<Long, Product> products = new HashMap<>();
+        for (Product product : productRepository.findAllById(productIds)) {
+            products.put(product.getId(), product);
+        }
+
+        // Validate every line first; valid lines wait for stock, grouped by product in id order
+        List<Order> toInsert = new ArrayList<>(orders.size());
+        Map<Long, List<Order>> validByProduct = new TreeMap<>();
+        for (Order order : orders) {
+            Product product = order.getProduct() != null ? products.get(order.getProduct().getId()) : null;
+            if (product == null) {
+                reject(order, "Product not found.");
+                continue;
+            }
+
+            order.setProduct(product);
+            if (order.getQuantity() == null || order.getQuantity() < 1) {
+                order.setQuantity(1);
+            }
+            order.setTotalPrice(product.getPrice() * order.getQuantity());
+            int validationErrors = OrderValidator.validate(order);
+            if (validationErrors != OrderValidator.VALID) {
+                reject(order, OrderValidator.messages(validationErrors));
+            } else {
+                validByProduct.computeIfAbsent(product.getId(), id -> new ArrayList<>()).add(order);
+            }
+            toInsert.add(order);
+        }
+
+        for (Map.Entry<Long, List<Order>> entry : validByProduct.entrySet()) {
+            reserveStock(products.get(entry.getKey()), entry.getValue());
+        }
+
+        orderRepository.insertAll(toInsert);
+        countInserted(toInsert);
+        for (Order order : toInsert) {
+            rememberWrite(order.getUser());
+        }
+        recordForAnalytics(toInsert);
+    }
+
+    /**
+     * Take stock for all valid lines of one product
+     * One UPDATE for the whole quantity; if there is not enough for all of
+     * them, the lines take what is left one by one in request order.
+     */
+    private void reserveStock(Product product, List<Order> lines) {
+        if (lines.size() > 1) {
+            int quantity = 0;
+            for (Order order : lines) {
+                quantity += order.getQuantity();
+            }
+            if (reserveStock(product.getId(), quantity)) {
+                for (Order order : lines) {
+                    accept(order);
+                }
+                return;
+            }
+        }
+        for (Order order : lines) {
+            if (reserveStock(product.getId(), order.getQuantity())) {
+                accept(order);
+            } else {
+                reject(order, insufficientStock(product));
+            }
+        }
+    }
+
+    /**
+     * Stores an order that was acknowledged but could not be placed as REJECTED
+     * For orders taken before they were stored (async queue): the customer
+     * still finds the order, with the reason, and its tracking id links it to
+     * the acknowledgement. Takes no stock. Text longer than its column is cut,
+     * so a value that made the placement fail cannot make this fail too.
+     *
+     * @param order  Order with user, product (at least the id) and tracking id
+     * @param reason Why it could not be placed
+     */
+    @Transactional
+    public void storeRejected(Order order, String reason) {
+        order.setId(null);
+        order.setCustomerName(cut(order.getCustomerName(), TEXT_COLUMN_LENGTH));
+        order.setPhone(cut(order.getPhone(), TEXT_COLUMN_LENGTH));
+        order.setCity(cut(order.getCity(), TEXT_COLUMN_LENGTH));
+        order.setState(cut(order.getState(), TEXT_COLUMN_LENGTH));
+        order.setCardNumber(cut(order.getCardNumber(), TEXT_COLUMN_LENGTH));
+        reject(order, cut(reason, REJECTION_REASON_LENGTH));
+        orderRepository.insertAll(List.of(order));
+        countInserted(List.of(order));
+        rememberWrite(order.getUser());
+        recordForAnalytics(List.of(order));
+    }
+
+    // JDBC inserts bypass the entity listeners, so count them here
+    private void countInserted(List<Order> orders) {
+        Map<String, Integer> inserted = new HashMap<>();
+        for (Order order : orders) {
+            inserted.merge(order.getStatus(), 1, Integer::sum);
+        }
+        inserted.forEach(dashboardCounters::ordersAdded);
+    }
+
+    private static String cut(String text, int length) {
+        return text != null && text.length() > length ? text.substring(0, length) : text;
+    }
+
+    // Product carrying only its id, to be resolved by placeOrders
+    private static Product productReference(Long productId) {
+        if (productId == null) {
+            return null;
+        }
+        Product product = new Product();
+        product.setId(productId);
+        return product;
+    }
 
-        if (validationErrors.isEmpty()) {
-            order.setStatus("ACCEPTED");
+    /**
+     * ACCEPTED if the details are valid and the stock could be reserved, else REJECTED with a reason
+     */
+    private void decideOutcome(Order order, Product product) {
+        int validationErrors = OrderValidator.validate(order);
+        if (validationErrors != OrderValidator.VALID) {
+            reject(order, OrderValidator.messages(validationErrors));
+        } else if (reserveStock(product.getId(), order.getQuantity())) {
+            accept(order);
         } else {
-            order.setStatus("REJECTED");
+            reject(order, insufficientStock(product));
         }
+    }
 
-        // Save and return
-        return orderRepository.save(order);
+    private void accept(Order order) {
+        order.setStatus("ACCEPTED");
+        AfterCommit.run(acceptedOrders::increment);
+    }
+
+    private void reject(Order order, String reason) {
+        order.setStatus("REJECTED");
+        order.setRejectionReason(reason);
+        AfterCommit.run(rejectedOrders::increment);
+    }
+
+    private static String insufficientStock(Product product) {
+        return "Insufficient stock for " + product.getName() + ".";
+    }
+
+    /**
+     * Take quantity units of stock in a single conditional UPDATE
+     * The row lock is held only until the surrounding transaction commits.
+     *
+     * @return true if the stock was reserved, false if there was not enough
+     */
+    private boolean reserveStock(Long productId, int quantity) {
+        if (productRepository.decrementStock(productId, quantity) == 0) {
+            return false;
+        }
+        // The cached catalog shows stock - apply the change once it is committed
+        AfterCommit.run(() -> productService.stockTaken(productId, quantity));
+        return true;
+    }
+
+    // Once the order is committed, read this user's orders from the primary for a while
+    private void rememberWrite(User user) {
+        if (user == null) {
+            return;
+        }
+        Integer userId = user.getId();
+        AfterCommit.run(() -> recentWriters.put(userId, System.currentTimeMillis()));
+    }
+
+    // Once the orders are committed, add them to the analytics columns
+    private void recordForAnalytics(List<Order> orders) {
+        List<OrderFact> facts = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            facts.add(OrderFact.of(order));
+        }
+        AfterCommit.run(() -> orderAnalytics.append(facts));
+    }
+
+    // True if the replica might not have this user's latest order yet
+    private boolean wroteRecently(User user) {
+        Long lastWrite = recentWriters.get(user.getId());
+        return lastWrite != null && System.currentTimeMillis() - lastWrite <= maxReplicaLagMillis;
     }
 
     // ========================================
-    // GET ORDERS
+    // GET ORDERS (read-only: served by the replica when one is configured)
     // ========================================
 
     /**
      * Get all orders for a specific user
      */
+    @Transactional(readOnly = true)
     public List<Order> getOrdersByUser(User user) {
-        return orderRepository.findByUserOrderByOrderDateDesc(user);
+        return ReplicaRouting.onPrimaryIf(wroteRecently(user),
+                () -> orderRepository.findByUserOrderByOrderDateDesc(user));
+    }
+
+    /**
+     * Get the order history of a user as read-only rows
+     * One query, no entities - used by the "My Orders" page.
+     * Right after the user ordered, it reads from the primary so the new order shows.
+     */
+    @Transactional(readOnly = true)
+    public List<OrderHistoryItem> getOrderHistory(User user) {
+        return ReplicaRouting.onPrimaryIf(wroteRecently(user), () -> orderRepository.findHistoryByUser(user));
     }
 
     /**
      * Get all orders (for Admin)
      */
+    @Transactional(readOnly = true)
     public List<Order> getAllOrders() {
         return orderRepository.findAll();
     }
 
+    /**
+     * Get one page of orders (for Admin), newest first
+     * Uses keyset pagination on (order_date, id) so every page costs the same
+     * no matter how deep into the table it is.
+     *
+     * @param after  Cursor of the last order on the current page (next page), or null
+     * @param before Cursor of the first order on the current page (previous page), or null
+     * @param size   Requested page size, or null for the configured default
+     * @return The page with cursors for the neighbouring pages
+     */
+    @Transactional(readOnly = true)
+    public OrderPage getOrderPage(OrderCursor after, OrderCursor before, Integer size) {
+        int pageSize = resolvePageSize(size);
+        // Fetch one extra row to find out whether another page exists
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+
+        if (before != null) {
+            List<Order> orders = orderRepository.findNewerThan(before.getOrderDate(), before.getId(), limit);
+            if (orders.isEmpty()) {
+                return getOrderPage(null, null, pageSize);
+            }
+            boolean hasPrevious = orders.size() > pageSize;
+            if (hasPrevious) {
+                orders = orders.subList(0, pageSize);
+            }
+            orders = new ArrayList<>(orders);
+            Collections.reverse(orders);
+            return toPage(orders, hasPrevious, true);
+        }
+
+        List<Order> orders = after != null
+                ? orderRepository.findOlderThan(after.getOrderDate(), after.getId(), limit)
+                : orderRepository.findNewest(limit);
+        if (orders.isEmpty() && after != null) {
+            return getOrderPage(null, null, pageSize);
+        }
+        boolean hasNext = orders.size() > pageSize;
+        if (hasNext) {
+            orders = orders.subList(0, pageSize);
+        }
+        return toPage(orders, after != null, hasNext);
+    }
+
+    private OrderPage toPage(List<Order> orders, boolean hasPrevious, boolean hasNext) {
+        if (orders.isEmpty()) {
+            return new OrderPage(orders, null, null);
+        }
+        String previous = hasPrevious ? OrderCursor.of(orders.get(0)).toString() : null;
+        String next = hasNext ? OrderCursor.of(orders.get(orders.size() - 1)).toString() : null;
+        return new OrderPage(orders, previous, next);
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null || size < 1) {
+            return defaultPageSize;
+        }
+        return Math.min(size, maxPageSize);
+    }
+
     /**
      * Get order by ID
      */
+    @Transactional(readOnly = true)
     public Order getOrderById(Long id) {
         return orderRepository.findById(id).orElse(null);
     }
@@ -161,18 +491,22 @@ public class OrderService {
 
     /**
      * Update order status (PENDING, ACCEPTED, REJECTED)
+     * Read and write in one transaction, so the order is read from the primary.
      */
+    @Transactional
     public void updateOrderStatus(Long orderId, String status) {
         Order order = orderRepository.findById(orderId).orElse(null);
         if (order != null) {
             order.setStatus(status);
             orderRepository.save(order);
+            AfterCommit.run(() -> orderAnalytics.statusChanged(orderId, status));
         }
     }
 
     /**
      * Get count of all orders
      */
+    @Transactional(readOnly = true)
     public long getOrderCount() {
         return orderRepository.count();
     }
@@ -0,0 +1,128 @@
+package com.register.springboot.service;
+
+import com.register.springboot.model.Order;
+
+/**
+ * OrderValidator - Checks the shipping details of an order (same rules as Assignment 5)
+ * Scans the characters directly instead of using regex, so validating a valid
+ * order allocates nothing. The result is a bitmask of the failed fields; the
+ * messages are only built when an order is actually rejected.
+ */
+public final class OrderValidator {
+
+    // ========================================
+    // ERROR CODES (one bit per field)
+    // ========================================
+
+    public static final int VALID = 0;
+    public static final int INVALID_NAME = 1;
+    public static final int INVALID_PHONE = 1 << 1;
+    public static final int INVALID_CITY = 1 << 2;
+    public static final int INVALID_STATE = 1 << 3;
+    public static final int INVALID_CARD = 1 << 4;
+
+    private static final int[] CODES = {
+            INVALID_NAME, INVALID_PHONE, INVALID_CITY, INVALID_STATE, INVALID_CARD };
+
+    private static final String[] MESSAGES = {
+            "Name must contain only letters.",
+            "Phone must be 10 digits starting with 7, 8, or 9.",
+            "City must contain only letters.",
+            "State must contain only letters.",
+            "Card number must be exactly 16 digits." };
+
+    private OrderValidator() {
+    }
+
+    // ========================================
+    // VALIDATE
+    // ========================================
+
+    /**
+     * Validates the order, reusing the result if it was already validated
+     *
+     * @param order The order to validate
+     * @return VALID (0) or the INVALID_* bits of every failed field
+     */
+    public static int validate(Order order) {
+        Integer cached = order.getValidationErrors();
+        if (cached != null) {
+            return cached;
+        }
+        int errors = VALID;
+        // Name: only letters and spaces
+        if (!isLettersAndSpaces(order.getCustomerName())) {
+            errors |= INVALID_NAME;
+        }
+        // Phone: 10 digits, must start with 7, 8, or 9
+        String phone = order.getPhone();
+        if (phone == null || phone.length() != 10 || phone.charAt(0) < '7' || !isDigits(phone)) {
+            errors |= INVALID_PHONE;
+        }
+        // City and State: only letters and spaces
+        if (!isLettersAndSpaces(order.getCity())) {
+            errors |= INVALID_CITY;
+        }
+        if (!isLettersAndSpaces(order.getState())) {
+            errors |= INVALID_STATE;
+        }
+        // Card Number: exactly 16 digits
+        String card = order.getCardNumber();
+        if (card == null || card.length() != 16 || !isDigits(card)) {
+            errors |= INVALID_CARD;
+        }
+        order.recordValidationErrors(errors);
+        return errors;
+    }
+
+    /**
+     * Renders the error bits as the messages shown to the customer
+     *
+     * @param errors Bitmask returned by validate
+     * @return Empty string if valid, space separated messages otherwise
+     */
+    public static String messages(int errors) {
+        if (errors == VALID) {
+            return "";
+        }
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < CODES.length; i++) {
+            if ((errors & CODES[i]) != 0) {
+                if (text.length() > 0) {
+                    text.append(' ');
+                }
+                text.append(MESSAGES[i]);
+            }
+        }
+        return text.toString();
+    }
+
+    // ========================================
+    // CHARACTER CHECKS
+    // ========================================
+
+    // Non-empty and only ASCII letters and spaces
+    private static boolean isLettersAndSpaces(String value) {
+        if (value == null || value.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == ' ')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Only ASCII digits (length is checked by the caller)
+    private static boolean isDigits(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
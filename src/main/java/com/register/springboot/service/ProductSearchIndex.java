@@ -0,0 +1,206 @@
+package com.register.springboot.service;
+
+import com.register.springboot.model.Product;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * ProductSearchIndex - In-memory inverted index over product name and description
+ *
+ * Every query term must match (AND). A term matches an indexed word exactly or
+ * as a prefix ("geo" finds "geographic"). Results are ranked by score:
+ * name words weigh more than description words and exact words more than prefixes.
+ */
+public class ProductSearchIndex {
+
+    // Weight of one occurrence of a word in the name / description
+    private static final int NAME_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    // Exact word matches count double compared to prefix matches
+    private static final int EXACT_MATCH_FACTOR = 2;
+
+    // word -> (product id -> weight); sorted so prefixes are a range scan
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+
+    // product id -> words it is indexed under (needed to re-index / remove)
+    private final Map<Long, Set<String>> productWords = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean built;
+
+    /**
+     * Replace the whole index with the given products
+     */
+    public void rebuild(Collection<Product> products) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            productWords.clear();
+            for (Product product : products) {
+                addProduct(product);
+            }
+            built = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add or re-index one product (no-op until the index has been built)
+     */
+    public void index(Product product) {
+        lock.writeLock().lock();
+        try {
+            if (!built) {
+                return;
+            }
+            removeProduct(product.getId());
+            addProduct(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a product from the index
+     */
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            removeProduct(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isBuilt() {
+        return built;
+    }
+
+    /**
+     * Search the index
+     *
+     * @param query Free text; split into terms the same way products are
+     * @return Matching product ids, best match first (empty if the query has no terms)
+     */
+    public List<Long> search(String query) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> scores = null;
+            for (String term : new HashSet<>(terms)) {
+                Map<Long, Integer> termScores = scoreTerm(term);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    // AND: keep only products matching every term
+                    scores.keySet().retainAll(termScores.keySet());
+                    for (Map.Entry<Long, Integer> entry : scores.entrySet()) {
+                        entry.setValue(entry.getValue() + termScores.get(entry.getKey()));
+                    }
+                }
+                if (scores.isEmpty()) {
+                    return Collections.emptyList();
+                }
+            }
+
+            List<Map.Entry<Long, Integer>> ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort((a, b) -> {
+                int byScore = Integer.compare(b.getValue(), a.getValue());
+                return byScore != 0 ? byScore : Long.compare(a.getKey(), b.getKey());
+            });
+            List<Long> ids = new ArrayList<>(ranked.size());
+            for (Map.Entry<Long, Integer> entry : ranked) {
+                ids.add(entry.getKey());
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Score of every product matching one term (exactly or as a prefix)
+    private Map<Long, Integer> scoreTerm(String term) {
+        Map<Long, Integer> scores = new HashMap<>();
+        for (Map.Entry<String, Map<Long, Integer>> word : prefixRange(term).entrySet()) {
+            int factor = word.getKey().equals(term) ? EXACT_MATCH_FACTOR : 1;
+            for (Map.Entry<Long, Integer> posting : word.getValue().entrySet()) {
+                scores.merge(posting.getKey(), posting.getValue() * factor, Integer::sum);
+            }
+        }
+        return scores;
+    }
+
+    // All indexed words starting with the prefix
+    private NavigableMap<String, Map<Long, Integer>> prefixRange(String prefix) {
+        return postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private void addProduct(Product product) {
+        Long id = product.getId();
+        Set<String> words = new HashSet<>();
+        for (String word : tokenize(product.getName())) {
+            postings.computeIfAbsent(word, w -> new HashMap<>()).merge(id, NAME_WEIGHT, Integer::sum);
+            words.add(word);
+        }
+        for (String word : tokenize(product.getDescription())) {
+            postings.computeIfAbsent(word, w -> new HashMap<>()).merge(id, DESCRIPTION_WEIGHT, Integer::sum);
+            words.add(word);
+        }
+        productWords.put(id, words);
+    }
+
+    private void removeProduct(Long id) {
+        Set<String> words = productWords.remove(id);
+        if (words == null) {
+            return;
+        }
+        for (String word : words) {
+            Map<Long, Integer> ids = postings.get(word);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(word);
+                }
+            }
+        }
+    }
+
+    /**
+     * Split text into lower-case words of letters and digits (locale-independent, so
+     * "TITLE" is "title" under a Turkish default locale too)
+     */
+    static List<String> tokenize(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                words.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return words;
+    }
+}
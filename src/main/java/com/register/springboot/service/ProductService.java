@@ -1,15 +1,30 @@
 package com.register.springboot.service;
 
+import com.register.springboot.cache.CacheStats;
+import com.register.springboot.cache.LruCache;
+import com.register.springboot.datasource.ReplicaRouting;
 import com.register.springboot.model.Product;
 import com.register.springboot.repository.ProductRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * ProductService - Business logic for Product operations
  * Handles CRUD operations for magazines
+ *
+ * Catalog reads are served from an in-memory cache. The catalog only changes
+ * through saveProduct/deleteProduct, which update the cache as they write.
+ * Stock taken by orders is applied to the cached products (stockTaken) and
+ * is not a catalog change: nothing is reloaded and catalog ETags stay valid.
  */
 @Service
 public class ProductService {
@@ -17,26 +32,107 @@ public class ProductService {
     @Autowired
     private ProductRepository productRepository;
 
+    // Maximum number of products kept in the by-id cache
+    @Value("${app.catalog.cache-size:1000}")
+    private int cacheSize;
+
+    // Replica reads may be this far behind the primary
+    @Value("${app.datasource.replica.max-lag-ms:2000}")
+    private long maxReplicaLagMillis;
+
+    // ========================================
+    // CATALOG CACHE
+    // ========================================
+
+    // Products by id (LRU, bounded)
+    private LruCache<Long, Product> productCache;
+
+    // Full product list, null until loaded or after a change
+    private volatile List<Product> allProducts;
+    private final LongAdder listHits = new LongAdder();
+    private final LongAdder listMisses = new LongAdder();
+
+    // Bumped on every catalog change (not on stock taken by orders); part of the catalog ETag
+    private final AtomicLong catalogVersion = new AtomicLong();
+
+    // Bumped on every change to cached data, stock included; loads started before a change are not cached
+    private final AtomicLong cacheGeneration = new AtomicLong();
+
+    // Start time of this instance, part of every catalog ETag
+    private final String instanceTag = Long.toString(System.currentTimeMillis(), 36);
+
+    // Time of the last product change; until the replica caught up, loads read the primary
+    private volatile long lastChangeMillis;
+
+    // Full-text index over name and description, built on the first search
+    private final ProductSearchIndex searchIndex = new ProductSearchIndex();
+
+    @PostConstruct
+    void initCache() {
+        productCache = new LruCache<>(cacheSize);
+    }
+
     /**
-     * Get all products from database
+     * Get all products (cached)
      */
     public List<Product> getAllProducts() {
-        return productRepository.findAll();
+        List<Product> products = allProducts;
+        if (products != null) {
+            listHits.increment();
+            return products;
+        }
+        listMisses.increment();
+
+        long version = cacheGeneration.get();
+        products = Collections.unmodifiableList(
+                ReplicaRouting.onPrimaryIf(changedRecently(), productRepository::findAll));
+        synchronized (this) {
+            if (cacheGeneration.get() == version) {
+                allProducts = products;
+                for (Product product : products) {
+                    productCache.put(product.getId(), product);
+                }
+            }
+        }
+        return products;
     }
 
     /**
-     * Get product by ID
+     * Get product by ID (cached)
      */
     public Product getProductById(Long id) {
-        Optional<Product> product = productRepository.findById(id);
-        return product.orElse(null);
+        Product product = productCache.get(id);
+        if (product != null) {
+            return product;
+        }
+
+        long version = cacheGeneration.get();
+        product = ReplicaRouting.onPrimaryIf(changedRecently(), () -> productRepository.findById(id)).orElse(null);
+        if (product != null) {
+            synchronized (this) {
+                if (cacheGeneration.get() == version) {
+                    productCache.put(id, product);
+                }
+            }
+        }
+        return product;
     }
 
     /**
      * Save product (create new or update existing)
+     * Writes through to the cache
      */
     public Product saveProduct(Product product) {
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        synchronized (this) {
+            catalogVersion.incrementAndGet();
+            cacheGeneration.incrementAndGet();
+            lastChangeMillis = System.currentTimeMillis();
+            allProducts = null;
+            productCache.put(saved.getId(), saved);
+            searchIndex.index(saved);
+        }
+        return saved;
     }
 
     /**
@@ -44,13 +140,148 @@ public class ProductService {
      */
     public void deleteProduct(Long id) {
         productRepository.deleteById(id);
+        synchronized (this) {
+            evictProduct(id);
+            searchIndex.remove(id);
+        }
+    }
+
+    /**
+     * Drop a product from the cache after it was changed outside this service
+     */
+    public void evictProduct(Long id) {
+        synchronized (this) {
+            catalogVersion.incrementAndGet();
+            cacheGeneration.incrementAndGet();
+            lastChangeMillis = System.currentTimeMillis();
+            allProducts = null;
+            productCache.remove(id);
+        }
     }
 
     /**
-     * Search products by name
+     * Apply stock taken by a committed order to the cached catalog
+     * The cached product and the product list get a copy with the lower stock,
+     * so the next reads need no query and only that product's HTML is rendered
+     * again. The catalog version does not change: a page revalidated with its
+     * ETag may show a slightly higher stock, while the conditional UPDATE in
+     * OrderService still decides whether an order gets it.
+     */
+    public void stockTaken(Long id, int quantity) {
+        synchronized (this) {
+            cacheGeneration.incrementAndGet();
+            // The replica may not have the new stock yet
+            lastChangeMillis = System.currentTimeMillis();
+
+            Product cached = productCache.peek(id);
+            Product updated = cached != null ? withStock(cached, cached.getStock() - quantity) : null;
+            if (updated != null) {
+                productCache.put(id, updated);
+            }
+            List<Product> products = allProducts;
+            if (products == null) {
+                return;
+            }
+            List<Product> replaced = new ArrayList<>(products);
+            for (int i = 0; i < replaced.size(); i++) {
+                Product product = replaced.get(i);
+                if (product.getId().equals(id)) {
+                    replaced.set(i, updated != null ? updated : withStock(product, product.getStock() - quantity));
+                    allProducts = Collections.unmodifiableList(replaced);
+                    return;
+                }
+            }
+        }
+    }
+
+    // Cached products are shared between requests, so a change makes a copy
+    private static Product withStock(Product product, int stock) {
+        Product copy = new Product();
+        copy.setId(product.getId());
+        copy.setName(product.getName());
+        copy.setDescription(product.getDescription());
+        copy.setPrice(product.getPrice());
+        copy.setStock(Math.max(0, stock));
+        copy.setPublishDate(product.getPublishDate());
+        copy.setCreatedAt(product.getCreatedAt());
+        return copy;
+    }
+
+    /**
+     * Drop the whole catalog cache (the next reads load from the database)
+     */
+    public void clearCache() {
+        synchronized (this) {
+            catalogVersion.incrementAndGet();
+            cacheGeneration.incrementAndGet();
+            allProducts = null;
+            productCache.clear();
+        }
+    }
+
+    /**
+     * Search products by name and description
+     * All words must match (prefixes allowed); best matches come first.
+     * A blank query returns the whole catalog.
      */
     public List<Product> searchProducts(String name) {
-        return productRepository.findByNameContainingIgnoreCase(name);
+        if (name == null || name.trim().isEmpty()) {
+            return getAllProducts();
+        }
+        ensureSearchIndex();
+
+        List<Long> ids = searchIndex.search(name);
+        Map<Long, Product> found = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            Product product = productCache.get(id);
+            if (product != null) {
+                found.put(id, product);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            // Hits not in the cache are loaded with one query, not one per hit
+            long version = cacheGeneration.get();
+            List<Product> loaded = ReplicaRouting.onPrimaryIf(changedRecently(),
+                    () -> productRepository.findAllById(missing));
+            synchronized (this) {
+                for (Product product : loaded) {
+                    found.put(product.getId(), product);
+                    if (cacheGeneration.get() == version) {
+                        productCache.put(product.getId(), product);
+                    }
+                }
+            }
+        }
+
+        List<Product> results = new ArrayList<>(found.size());
+        for (Long id : ids) {
+            Product product = found.get(id);
+            if (product != null) {
+                results.add(product);
+            }
+        }
+        return results;
+    }
+
+    // True if the replica might not have the latest product change yet
+    private boolean changedRecently() {
+        return System.currentTimeMillis() - lastChangeMillis <= maxReplicaLagMillis;
+    }
+
+    // Build the search index from the catalog, retrying if a write raced with the load
+    private void ensureSearchIndex() {
+        while (!searchIndex.isBuilt()) {
+            long version = cacheGeneration.get();
+            List<Product> products = getAllProducts();
+            synchronized (this) {
+                if (!searchIndex.isBuilt() && cacheGeneration.get() == version) {
+                    searchIndex.rebuild(products);
+                }
+            }
+        }
     }
 
     /**
@@ -59,4 +290,32 @@ public class ProductService {
     public long getProductCount() {
         return productRepository.count();
     }
+
+    /**
+     * Current catalog version - changes whenever a product is saved or deleted (not when an order takes stock)
+     */
+    public long getCatalogVersion() {
+        return catalogVersion.get();
+    }
+
+    /**
+     * Strong ETag for anything rendered from the catalog (changes with getCatalogVersion)
+     * Versions restart at 0 with every JVM, so the tag also names the instance that issued it.
+     * Read it before the catalog: a concurrent change then only makes the tag older than the content.
+     */
+    public String getCatalogETag() {
+        return "\"" + instanceTag + "." + catalogVersion.get() + "\"";
+    }
+
+    /**
+     * Hit/miss/eviction counters of the catalog cache (list and by-id lookups)
+     */
+    public CacheStats getCacheStats() {
+        CacheStats byId = productCache.stats();
+        return new CacheStats(byId.getHits() + listHits.sum(),
+                byId.getMisses() + listMisses.sum(),
+                byId.getEvictions(),
+                byId.getSize(),
+                byId.getMaxSize());
+    }
 }
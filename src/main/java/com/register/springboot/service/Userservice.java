@@ -2,25 +2,31 @@ package com.register.springboot.service;
 
 import java.time.LocalDate;
 import java.time.Period;
+import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.ui.Model;
 
+import com.register.springboot.datasource.ReadFromPrimary;
 import com.register.springboot.model.User;
 import com.register.springboot.repository.UserRepository;
+import com.register.springboot.security.PasswordHashingBusyException;
 
 /**
  * Service class for handling user-related business logic,
  * such as registration validation and age calculation.
+ * Uniqueness checks must see the latest users, so reads go to the primary database.
  */
 @Service
+@ReadFromPrimary
 public class Userservice {
 	@Autowired
 	UserRepository userrepo;
 	@Autowired
-	BCryptPasswordEncoder encoder;
+	PasswordEncoder encoder;
 
 	/**
 	 * Checks if a username is already taken.
@@ -43,6 +49,7 @@ public class Userservice {
 	 * 
 	 * @param user to be validated and saved.
 	 * @return true if registration successful, false if under 18.
+	 * @throws PasswordHashingBusyException if the password could not be hashed right now.
 	 */
 	public boolean Age(User user) {
 		try {
@@ -61,6 +68,8 @@ public class Userservice {
 				userrepo.save(user);
 				return true;
 			}
+		} catch (PasswordHashingBusyException e) {
+			throw e;
 		} catch (Exception e) {
 			// Log the error and return false to prevent 500 status
 			System.err.println("Error parsing date or saving user: " + e.getMessage());
@@ -68,4 +77,17 @@ public class Userservice {
 		return false;
 	}
 
+	/**
+	 * Deletes a user by ID, loading and deleting in one transaction.
+	 * 
+	 * @param id of the user to delete.
+	 * @return the deleted user, or empty if there is no such user.
+	 */
+	@Transactional
+	public Optional<User> deleteUser(int id) {
+		Optional<User> user = userrepo.findById(id);
+		user.ifPresent(userrepo::delete);
+		return user;
+	}
+
 }
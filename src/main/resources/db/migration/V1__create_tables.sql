@@ -0,0 +1,43 @@
+-- Baseline schema: the tables Hibernate used to create with ddl-auto=update.
+-- Existing databases already have them and are baselined at version 1 (spring.flyway.baseline-on-migrate).
+
+create table users (
+    id integer not null auto_increment,
+    age integer not null,
+    dob varchar(255),
+    email varchar(255),
+    password varchar(255),
+    roles varchar(255),
+    user_name varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table products (
+    id bigint not null auto_increment,
+    created_at datetime(6),
+    description varchar(1000),
+    name varchar(255) not null,
+    price double precision not null,
+    publish_date date,
+    stock integer,
+    primary key (id)
+) engine=InnoDB;
+
+create table orders (
+    id bigint not null auto_increment,
+    card_number varchar(255),
+    city varchar(255),
+    customer_name varchar(255),
+    order_date datetime(6),
+    phone varchar(255),
+    quantity integer,
+    state varchar(255),
+    status varchar(255),
+    total_price double precision,
+    product_id bigint not null,
+    user_id integer not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table orders add constraint fk_orders_product foreign key (product_id) references products (id);
+alter table orders add constraint fk_orders_user foreign key (user_id) references users (id);
@@ -0,0 +1,16 @@
+-- Indexes for the repository queries (RepositoryQueryPlanTest fails if a query needs a full scan).
+
+-- A customer's orders, newest first (findByUserOrderByOrderDateDesc, findHistoryByUser)
+create index idx_orders_user_date on orders (user_id, order_date desc, id desc);
+
+-- Admin order list, keyset pagination on (order_date, id)
+create index idx_orders_date on orders (order_date desc, id desc);
+
+-- Orders by status (findByStatus, countByStatus, countGroupedByStatus)
+create index idx_orders_status on orders (status);
+
+-- Login and registration look users up by name; names must be unique
+create unique index uk_users_user_name on users (user_name);
+
+-- Startup check for an admin account (existsByRoles)
+create index idx_users_roles on users (roles);
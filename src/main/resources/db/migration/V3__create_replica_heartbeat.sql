@@ -0,0 +1,7 @@
+-- Heartbeat row written on the primary and read back from the replica to measure replication lag
+-- (ReplicaLagMonitor; only used with app.datasource.replica.enabled=true)
+
+create table if not exists replica_heartbeat (
+    id integer not null primary key,
+    beat_at bigint not null
+) engine=InnoDB;
@@ -0,0 +1,7 @@
+-- Last journal record stored in the database, per order journal (OrderJournal; only used with
+-- app.orders.journal.enabled=true). Updated in the same transaction as the orders it covers.
+
+create table if not exists order_journal_checkpoint (
+    journal_name varchar(64) not null primary key,
+    applied_sequence bigint not null
+) engine=InnoDB;
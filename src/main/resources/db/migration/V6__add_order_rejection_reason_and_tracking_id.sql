@@ -0,0 +1,8 @@
+-- Rejected orders keep their reason, so an order that was acknowledged first and failed later
+-- (async queue) is stored as REJECTED instead of disappearing.
+alter table orders add column rejection_reason varchar(500);
+
+-- Tracking id shown when an order was acknowledged before it was stored (async queue);
+-- links the acknowledgement to the stored order
+alter table orders add column tracking_id varchar(64);
+create unique index uk_orders_tracking_id on orders (tracking_id);
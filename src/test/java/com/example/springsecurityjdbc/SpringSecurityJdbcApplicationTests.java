@@ -2,8 +2,12 @@ package com.example.springsecurityjdbc;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
 
-@SpringBootTest
+import com.register.springboot.SpringbootApplication;
+
+@SpringBootTest(classes = SpringbootApplication.class)
+@ActiveProfiles("test")
 class SpringSecurityJdbcApplicationTests {
 
 	@Test
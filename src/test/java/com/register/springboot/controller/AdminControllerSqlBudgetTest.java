@@ -0,0 +1,204 @@
+package com.register.springboot.controller;
+
+import com.register.springboot.model.Order;
+import com.register.springboot.model.Product;
+import com.register.springboot.model.User;
+import com.register.springboot.repository.OrderRepository;
+import com.register.springboot.repository.ProductRepository;
+import com.register.springboot.repository.UserRepository;
+import com.register.springboot.service.OrderService;
+import com.register.springboot.support.SqlBudgetTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import java.time.LocalDate;
+
+import static com.register.springboot.support.TestOrders.validOrder;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * SQL statement budgets for AdminController
+ * Several orders exist, so a per-order query on the order page would exceed the budget.
+ */
+class AdminControllerSqlBudgetTest extends SqlBudgetTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Order order;
+
+    @BeforeEach
+    void placeSomeOrders() {
+        User admin = userRepository.findByUserName("Sandeep");
+        Product product = productRepository.findAll().get(0);
+        for (int i = 0; i < 5; i++) {
+            order = orderService.placeOrder(validOrder(), admin, product.getId());
+        }
+    }
+
+    // Users, products and orders come from counters,
+    // revenue comes from the analytics columns plus the (cold) catalog for product names
+    @Test
+    void dashboard() throws Exception {
+        perform(1, get("/admin/dashboard").with(admin())).andExpect(status().isOk());
+    }
+
+    @Test
+    void revenueReportNeedsNoSql() throws Exception {
+        perform(0, get("/admin/analytics/revenue").param("by", "state").with(admin()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.groupedBy").value("state"))
+                .andExpect(jsonPath("$.lines").isArray())
+                .andExpect(jsonPath("$.orders").isNumber());
+    }
+
+    @Test
+    void revenueReportRejectsUnknownGrouping() throws Exception {
+        perform(0, get("/admin/analytics/revenue").param("by", "color").with(admin()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void orderStatusSummary() throws Exception {
+        perform(0, get("/admin/orders/status").with(admin()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.counts.ACCEPTED").isNumber())
+                .andExpect(jsonPath("$.counts.PENDING").isNumber())
+                .andExpect(jsonPath("$.counts.REJECTED").isNumber())
+                .andExpect(jsonPath("$.total").isNumber());
+    }
+
+    // Placed orders and status changes reach the counters without a recount
+    @Test
+    void orderStatusSummaryFollowsStatusChanges() throws Exception {
+        orderService.updateOrderStatus(order.getId(), "PENDING");
+
+        perform(0, get("/admin/orders/status").with(admin()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.counts.ACCEPTED").value(orderRepository.countByStatus("ACCEPTED")))
+                .andExpect(jsonPath("$.counts.PENDING").value(orderRepository.countByStatus("PENDING")))
+                .andExpect(jsonPath("$.counts.REJECTED").value(orderRepository.countByStatus("REJECTED")))
+                .andExpect(jsonPath("$.total").value(orderRepository.count()));
+    }
+
+    @Test
+    void manageProducts() throws Exception {
+        perform(1, get("/admin/products").with(admin())).andExpect(status().isOk());
+    }
+
+    @Test
+    void showAddProduct() throws Exception {
+        perform(0, get("/admin/products/add").with(admin())).andExpect(status().isOk());
+    }
+
+    @Test
+    void addProduct() throws Exception {
+        perform(1, post("/admin/products/add").with(admin())
+                .param("name", "Budget Monthly")
+                .param("description", "Added by a test")
+                .param("price", "4.99")
+                .param("stock", "10"))
+                .andExpect(status().is3xxRedirection());
+    }
+
+    @Test
+    void showEditProduct() throws Exception {
+        Product product = productRepository.findAll().get(0);
+        perform(1, get("/admin/products/edit/" + product.getId()).with(admin())).andExpect(status().isOk());
+    }
+
+    @Test
+    void editProduct() throws Exception {
+        Product product = productRepository.findAll().get(1);
+        perform(2, post("/admin/products/edit/" + product.getId()).with(admin())
+                .param("name", product.getName())
+                .param("description", product.getDescription())
+                .param("price", String.valueOf(product.getPrice()))
+                .param("stock", String.valueOf(product.getStock())))
+                .andExpect(status().is3xxRedirection());
+    }
+
+    @Test
+    void deleteProduct() throws Exception {
+        Product product = new Product();
+        product.setName("Budget Weekly");
+        product.setPrice(1.0);
+        product.setStock(1);
+        product = productRepository.save(product);
+        perform(2, get("/admin/products/delete/" + product.getId()).with(admin()))
+                .andExpect(status().is3xxRedirection());
+    }
+
+    @Test
+    void manageUsers() throws Exception {
+        perform(1, get("/admin/users").with(admin())).andExpect(status().isOk());
+    }
+
+    @Test
+    void deleteUser() throws Exception {
+        User user = new User();
+        user.setUserName("budgetadmindelete");
+        user.setPassword("secret");
+        user.setEmail("delete@example.com");
+        user.setDob("1990-01-01");
+        user.setRoles("ROLE_USER");
+        user = userRepository.save(user);
+        perform(2, get("/admin/users/delete/" + user.getId()).with(admin()))
+                .andExpect(status().is3xxRedirection());
+    }
+
+    @Test
+    void manageOrders() throws Exception {
+        perform(1, get("/admin/orders").with(admin())).andExpect(status().isOk());
+    }
+
+    // The whole export is one streamed SELECT, however many orders match
+    @Test
+    void exportOrdersAsCsv() throws Exception {
+        perform(1, get("/admin/orders/export").with(admin()).param("status", order.getStatus()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(content().string(startsWith("id,order_date,status,user_id,user_name,product_id,")))
+                .andExpect(content().string(containsString("\r\n" + order.getId() + ",")));
+    }
+
+    @Test
+    void exportOrdersAsNdjson() throws Exception {
+        String today = LocalDate.now().toString();
+        perform(1, get("/admin/orders/export").with(admin())
+                .param("format", "ndjson").param("from", today).param("to", today))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andExpect(content().string(containsString("{\"id\":" + order.getId() + ",")))
+                .andExpect(content().string(not(containsString("cardNumber"))));
+    }
+
+    @Test
+    void exportOrdersRejectsUnknownStatus() throws Exception {
+        perform(0, get("/admin/orders/export").with(admin()).param("status", "SHIPPED"))
+                .andExpect(status().isBadRequest());
+    }
+
+    // Load and update; no placed order is PENDING, so the UPDATE is always sent
+    @Test
+    void updateOrderStatus() throws Exception {
+        perform(2, post("/admin/orders/" + order.getId() + "/status").with(admin()).param("status", "PENDING"))
+                .andExpect(status().is3xxRedirection());
+    }
+}
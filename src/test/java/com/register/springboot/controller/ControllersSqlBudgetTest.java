@@ -0,0 +1,78 @@
+package com.register.springboot.controller;
+
+import com.register.springboot.model.User;
+import com.register.springboot.repository.UserRepository;
+import com.register.springboot.support.SqlBudgetTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * SQL statement budgets for the general pages and user management in Controllers
+ */
+class ControllersSqlBudgetTest extends SqlBudgetTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void staticPages() throws Exception {
+        perform(0, get("/")).andExpect(status().isOk());
+        perform(0, get("/login")).andExpect(status().isOk());
+        perform(0, get("/register")).andExpect(status().isOk());
+        perform(0, get("/User").with(customer())).andExpect(status().isOk());
+        perform(0, get("/admin").with(admin())).andExpect(status().isOk());
+    }
+
+    @Test
+    void listUsers() throws Exception {
+        perform(1, get("/list").with(admin())).andExpect(status().isOk());
+    }
+
+    @Test
+    void addUser() throws Exception {
+        perform(2, post("/add")
+                .param("userName", "budgetnew")
+                .param("password", "secret")
+                .param("email", "new@example.com")
+                .param("dob", "1990-01-01"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void showUpdateForm() throws Exception {
+        User user = saveUser("budgetedit");
+        perform(1, get("/edit/" + user.getId()).with(admin())).andExpect(status().isOk());
+    }
+
+    @Test
+    void updateUser() throws Exception {
+        User user = saveUser("budgetupdate");
+        perform(3, post("/update/" + user.getId()).with(admin())
+                .param("id", String.valueOf(user.getId()))
+                .param("userName", "budgetupdate")
+                .param("password", "secret")
+                .param("email", "updated@example.com")
+                .param("dob", "1990-01-01"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void deleteUser() throws Exception {
+        User user = saveUser("budgetdelete");
+        perform(3, get("/delete/" + user.getId()).with(admin())).andExpect(status().isOk());
+    }
+
+    private User saveUser(String userName) {
+        User user = new User();
+        user.setUserName(userName);
+        user.setPassword("secret");
+        user.setEmail(userName + "@example.com");
+        user.setDob("1990-01-01");
+        user.setRoles("ROLE_USER");
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,73 @@
+package com.register.springboot.controller;
+
+import com.register.springboot.support.SqlBudgetTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.resource.ResourceUrlProvider;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Cache-Control per route (WebCachingConfiguration)
+ */
+class HttpCachingTest extends SqlBudgetTest {
+
+    @Autowired
+    private ResourceUrlProvider resourceUrlProvider;
+
+    @Test
+    void catalogPagesArePrivateAndShortLived() throws Exception {
+        mvc.perform(get("/products").with(customer()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=60, private"))
+                .andExpect(header().exists(HttpHeaders.ETAG));
+    }
+
+    // Revalidating an unchanged catalog page costs no SQL and no render
+    @Test
+    void unchangedCatalogPageIsNotModified() throws Exception {
+        String etag = mvc.perform(get("/products/search").param("name", "business").with(customer()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        perform(0, get("/products/search").param("name", "business")
+                .header(HttpHeaders.IF_NONE_MATCH, etag).with(customer()))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void personalPagesAreNotStored() throws Exception {
+        mvc.perform(get("/my-orders").with(customer()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("no-store")));
+        mvc.perform(get("/admin/orders").with(admin()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("no-store")));
+    }
+
+    @Test
+    void staticAssetsHaveVersionedUrlsAndLongLifetimes() throws Exception {
+        String url = resourceUrlProvider.getForLookupPath("/css/test.css");
+        assertNotNull(url);
+        assertTrue(url.matches("/css/test-[0-9a-f]{32}\\.css"), url);
+
+        mvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public"));
+    }
+
+    // The plain URL serves whatever file is deployed now, so it must not be kept
+    @Test
+    void staticAssetsUnderPlainUrlsAreRevalidated() throws Exception {
+        mvc.perform(get("/css/test.css"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED));
+    }
+}
@@ -0,0 +1,68 @@
+package com.register.springboot.controller;
+
+import com.register.springboot.model.Product;
+import com.register.springboot.repository.ProductRepository;
+import com.register.springboot.support.SqlBudgetTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * SQL statement budget for the bulk order API
+ * Products are loaded once, all orders go in one JDBC batch and the stock
+ * of each product is taken with one UPDATE for all its lines.
+ */
+class OrderApiControllerSqlBudgetTest extends SqlBudgetTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private static final int LINES = 10;
+
+    @Test
+    void placeOrders() throws Exception {
+        Product product = productRepository.findAll().get(0);
+        perform(4, post("/api/orders/batch").with(customer())
+                .contentType(MediaType.APPLICATION_JSON).content(batch(product, LINES)))
+                .andExpect(status().isOk());
+    }
+
+    // Not enough stock for the whole batch: the lines take what is left in request order
+    @Test
+    void linesTakeRemainingStockInOrder() throws Exception {
+        Product product = new Product();
+        product.setName("Two Left Monthly");
+        product.setPrice(5.0);
+        product.setStock(2);
+        product = productRepository.save(product);
+
+        mvc.perform(post("/api/orders/batch").with(customer())
+                .contentType(MediaType.APPLICATION_JSON).content(batch(product, 3)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("ACCEPTED"))
+                .andExpect(jsonPath("$[1].status").value("ACCEPTED"))
+                .andExpect(jsonPath("$[2].status").value("REJECTED"));
+    }
+
+    @Test
+    void nullLineIsRejected() throws Exception {
+        mvc.perform(post("/api/orders/batch").with(customer())
+                .contentType(MediaType.APPLICATION_JSON).content("[null]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static String batch(Product product, int lines) {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < lines; i++) {
+            body.append(i == 0 ? "" : ",")
+                    .append("{\"productId\":").append(product.getId())
+                    .append(",\"quantity\":1,\"customerName\":\"Ravi Kumar\",\"phone\":\"9876543210\"")
+                    .append(",\"city\":\"Bangalore\",\"state\":\"Karnataka\",\"cardNumber\":\"1234567812345678\"}");
+        }
+        return body.append(']').toString();
+    }
+}
@@ -0,0 +1,73 @@
+package com.register.springboot.controller;
+
+import com.register.springboot.model.Product;
+import com.register.springboot.model.User;
+import com.register.springboot.repository.ProductRepository;
+import com.register.springboot.repository.UserRepository;
+import com.register.springboot.service.OrderService;
+import com.register.springboot.support.SqlBudgetTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static com.register.springboot.support.TestOrders.validOrder;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * SQL statement budgets for OrderController
+ * The customer has several orders, so a per-order query would exceed the budget.
+ */
+class OrderControllerSqlBudgetTest extends SqlBudgetTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Product product;
+
+    @BeforeEach
+    void placeSomeOrders() {
+        User admin = userRepository.findByUserName("Sandeep");
+        product = productRepository.findAll().get(0);
+        for (int i = 0; i < 5; i++) {
+            orderService.placeOrder(validOrder(), admin, product.getId());
+        }
+    }
+
+    @Test
+    void showOrderForm() throws Exception {
+        perform(1, get("/order/" + product.getId()).with(admin()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void placeOrder() throws Exception {
+        perform(4, post("/order/" + product.getId()).with(admin())
+                .param("customerName", "Ravi Kumar")
+                .param("phone", "9876543210")
+                .param("city", "Bangalore")
+                .param("state", "Karnataka")
+                .param("cardNumber", "1234567812345678"))
+                .andExpect(status().is3xxRedirection());
+    }
+
+    @Test
+    void placeInvalidOrder() throws Exception {
+        perform(1, post("/order/" + product.getId()).with(admin())
+                .param("customerName", "R4vi"))
+                .andExpect(status().is3xxRedirection());
+    }
+
+    @Test
+    void myOrders() throws Exception {
+        perform(2, get("/my-orders").with(admin()))
+                .andExpect(status().isOk());
+    }
+}
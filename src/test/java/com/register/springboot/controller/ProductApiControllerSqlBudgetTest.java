@@ -0,0 +1,98 @@
+package com.register.springboot.controller;
+
+import com.register.springboot.model.Product;
+import com.register.springboot.repository.ProductRepository;
+import com.register.springboot.service.ProductService;
+import com.register.springboot.support.SqlBudgetTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * SQL statement budgets and conditional GETs for ProductApiController
+ */
+class ProductApiControllerSqlBudgetTest extends SqlBudgetTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Test
+    void listProducts() throws Exception {
+        perform(1, get("/api/products").with(customer()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andExpect(jsonPath("$[0].id").isNumber())
+                .andExpect(jsonPath("$[0].description").exists());
+    }
+
+    @Test
+    void viewProduct() throws Exception {
+        Product product = productRepository.findAll().get(0);
+        perform(1, get("/api/products/" + product.getId()).with(customer()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value(product.getName()));
+    }
+
+    @Test
+    void viewUnknownProduct() throws Exception {
+        perform(1, get("/api/products/999999").with(customer())).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void searchProducts() throws Exception {
+        perform(1, get("/api/products/search").param("name", "business").with(customer()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void selectedFieldsOnly() throws Exception {
+        perform(1, get("/api/products").param("fields", "id,price").with(customer()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].*", hasSize(2)))
+                .andExpect(jsonPath("$[0].id").isNumber())
+                .andExpect(jsonPath("$[0].price").isNumber());
+    }
+
+    @Test
+    void unknownFieldIsRejected() throws Exception {
+        perform(0, get("/api/products").param("fields", "id,secret").with(customer()))
+                .andExpect(status().isBadRequest());
+    }
+
+    // An unchanged catalog is answered from the ETag alone: no SQL, no body
+    @Test
+    void unchangedCatalogIsNotModified() throws Exception {
+        String etag = mvc.perform(get("/api/products").with(customer()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        perform(0, get("/api/products").header(HttpHeaders.IF_NONE_MATCH, etag).with(customer()))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void changedCatalogGetsANewETag() throws Exception {
+        String etag = mvc.perform(get("/api/products").with(customer()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        productService.evictProduct(productRepository.findAll().get(0).getId());
+
+        perform(1, get("/api/products").header(HttpHeaders.IF_NONE_MATCH, etag).with(customer()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+    }
+}
@@ -0,0 +1,38 @@
+package com.register.springboot.controller;
+
+import com.register.springboot.model.Product;
+import com.register.springboot.repository.ProductRepository;
+import com.register.springboot.support.SqlBudgetTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * SQL statement budgets for ProductController
+ */
+class ProductControllerSqlBudgetTest extends SqlBudgetTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void listProducts() throws Exception {
+        perform(1, get("/products").with(customer()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void viewProduct() throws Exception {
+        Product product = productRepository.findAll().get(0);
+        perform(1, get("/products/" + product.getId()).with(customer()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void searchProducts() throws Exception {
+        perform(1, get("/products/search").param("name", "business").with(customer()))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,97 @@
+package com.register.springboot.controller;
+
+import com.register.springboot.cache.CacheStats;
+import com.register.springboot.cache.ProductFragmentCache;
+import com.register.springboot.model.Product;
+import com.register.springboot.repository.UserRepository;
+import com.register.springboot.service.OrderService;
+import com.register.springboot.service.ProductService;
+import com.register.springboot.support.SqlBudgetTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static com.register.springboot.support.TestOrders.validOrder;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Rendered product HTML is reused until the product it shows changes
+ */
+class ProductFragmentCacheTest extends SqlBudgetTest {
+
+    @Autowired
+    private ProductFragmentCache productFragments;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void emptyFragments() {
+        productFragments.clear();
+    }
+
+    @Test
+    void listingIsRenderedOnce() throws Exception {
+        Product product = productService.getAllProducts().get(0);
+        mvc.perform(get("/products").with(customer()))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("href=\"/order/" + product.getId() + "\"")));
+        CacheStats first = productFragments.getStats();
+
+        mvc.perform(get("/products").with(customer())).andExpect(status().isOk());
+        CacheStats second = productFragments.getStats();
+
+        assertEquals(first.getMisses(), second.getMisses());
+        assertEquals(first.getHits() + 1, second.getHits());
+    }
+
+    // An order's stock change needs no query and keeps the catalog ETag; only the changed card is rendered again
+    @Test
+    void orderUpdatesTheCachedStock() throws Exception {
+        String etag = mvc.perform(get("/products").with(customer())).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        CacheStats before = productFragments.getStats();
+
+        Product product = productService.getAllProducts().get(0);
+        orderService.placeOrder(validOrder(),
+                userRepository.findByUserName("Sandeep"), product.getId());
+        perform(0, get("/products").with(customer()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(containsString("Stock: <span>" + (product.getStock() - 1) + "</span>")));
+        CacheStats after = productFragments.getStats();
+
+        // The listing and the one card
+        assertEquals(before.getMisses() + 2, after.getMisses());
+    }
+
+    @Test
+    void detailIsEscapedAndReused() throws Exception {
+        Product product = new Product();
+        product.setName("<script>alert(1)</script>");
+        product.setPrice(2.0);
+        product.setStock(3);
+        product = productService.saveProduct(product);
+        long missesBefore = productFragments.getStats().getMisses();
+
+        for (int i = 0; i < 2; i++) {
+            mvc.perform(get("/products/" + product.getId()).with(customer()))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string(containsString("&lt;script&gt;alert(1)&lt;/script&gt;")))
+                    .andExpect(content().string(not(containsString("<script>alert(1)"))));
+        }
+        assertEquals(missesBefore + 1, productFragments.getStats().getMisses());
+    }
+}
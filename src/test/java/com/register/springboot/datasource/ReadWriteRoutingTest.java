@@ -0,0 +1,152 @@
+package com.register.springboot.datasource;
+
+import com.register.springboot.SpringbootApplication;
+import com.register.springboot.model.Order;
+import com.register.springboot.model.OrderHistoryItem;
+import com.register.springboot.model.Product;
+import com.register.springboot.model.User;
+import com.register.springboot.repository.ProductRepository;
+import com.register.springboot.repository.UserRepository;
+import com.register.springboot.service.OrderService;
+import com.register.springboot.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import javax.sql.DataSource;
+
+import static com.register.springboot.support.TestOrders.validOrder;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Read/write routing against two in-memory databases
+ * The replica gets the primary's schema but no replication, so a row that
+ * exists in only one of them shows which database served a read.
+ */
+@SpringBootTest(classes = SpringbootApplication.class, properties = {
+        "app.datasource.replica.enabled=true",
+        "app.datasource.replica.url=" + ReadWriteRoutingTest.REPLICA_URL,
+        "app.datasource.replica.max-lag-ms=2000",
+        // Checks run from the tests, not the scheduler
+        "app.datasource.replica.heartbeat-ms=3600000"
+})
+@ActiveProfiles("test")
+class ReadWriteRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    private static final long REPLICA_ONLY_ID = 90_001L;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ReplicaLagMonitor lagMonitor;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private OrderService orderService;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void freshReplica() {
+        // Outside a transaction the routing DataSource always uses the primary
+        primary = new JdbcTemplate(dataSource);
+        replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+        if (replica.queryForObject("select count(*) from information_schema.tables where table_name = 'PRODUCTS'",
+                Integer.class) == 0) {
+            for (String statement : primary.queryForList("SCRIPT NODATA", String.class)) {
+                replica.execute(statement);
+            }
+            replica.update("insert into products (id, name, price, stock) values (?, 'Replica Only', 1.0, 1)",
+                    REPLICA_ONLY_ID);
+        }
+        beatOnReplica(System.currentTimeMillis());
+        lagMonitor.check();
+        productService.clearCache();
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplica() {
+        assertTrue(lagMonitor.isReplicaUsable());
+        assertTrue(productRepository.findById(REPLICA_ONLY_ID).isPresent());
+    }
+
+    @Test
+    void writesGoToThePrimary() {
+        Product saved = productService.saveProduct(product("Primary Write"));
+
+        assertEquals(1, count(primary, saved.getId()));
+        assertEquals(0, count(replica, saved.getId()));
+    }
+
+    @Test
+    void onPrimaryBypassesTheReplica() {
+        assertFalse(ReplicaRouting.onPrimary(() -> productRepository.findById(REPLICA_ONLY_ID)).isPresent());
+    }
+
+    @Test
+    void laggingReplicaIsNotUsed() {
+        beatOnReplica(System.currentTimeMillis() - 60_000);
+        lagMonitor.check();
+
+        assertFalse(lagMonitor.isReplicaUsable());
+        assertFalse(productRepository.findById(REPLICA_ONLY_ID).isPresent());
+    }
+
+    @Test
+    void changedProductIsReadFromThePrimary() {
+        Product saved = productService.saveProduct(product("Fresh Product"));
+        productService.clearCache();
+
+        assertNotNull(productService.getProductById(saved.getId()));
+    }
+
+    @Test
+    void customerSeesOwnOrderRightAway() {
+        User admin = ReplicaRouting.onPrimary(() -> userRepository.findByUserName("Sandeep"));
+        Product product = productService.saveProduct(product("Ordered Product"));
+
+        Order placed = orderService.placeOrder(validOrder(), admin, product.getId());
+
+        assertTrue(orderService.getOrderHistory(admin).stream()
+                .map(OrderHistoryItem::getId)
+                .anyMatch(placed.getId()::equals));
+        // Other readers still use the replica, which has no orders
+        assertTrue(orderService.getAllOrders().isEmpty());
+    }
+
+    private void beatOnReplica(long beatAt) {
+        if (replica.update("update replica_heartbeat set beat_at = ? where id = 1", beatAt) == 0) {
+            replica.update("insert into replica_heartbeat (id, beat_at) values (1, ?)", beatAt);
+        }
+    }
+
+    private static int count(JdbcTemplate database, Long productId) {
+        return database.queryForObject("select count(*) from products where id = ?", Integer.class, productId);
+    }
+
+    private static Product product(String name) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(10.0);
+        product.setStock(5);
+        return product;
+    }
+}
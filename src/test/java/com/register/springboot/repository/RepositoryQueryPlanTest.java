@@ -0,0 +1,199 @@
+package com.register.springboot.repository;
+
+import com.register.springboot.SpringbootApplication;
+import com.register.springboot.model.Order;
+import com.register.springboot.model.OrderExportRow;
+import com.register.springboot.model.OrderFact;
+import com.register.springboot.model.Product;
+import com.register.springboot.model.User;
+import com.register.springboot.support.SqlCountingConfiguration;
+import com.register.springboot.support.SqlStatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.lang.reflect.Method;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Query plans of every repository query method against the migrated schema
+ * Each method is run once, the SQL it sends is recorded, and H2's EXPLAIN of
+ * that SQL must not read a whole table (inserts are not explained). An index used without a condition
+ * only passes when it also gives the ORDER BY or GROUP BY its order.
+ */
+@SpringBootTest(classes = SpringbootApplication.class)
+@ActiveProfiles("test")
+@Import(SqlCountingConfiguration.class)
+class RepositoryQueryPlanTest {
+
+    // Table access in an H2 plan: /* PUBLIC.INDEX_NAME */ or /* PUBLIC.INDEX_NAME: CONDITION */
+    private static final Pattern TABLE_ACCESS = Pattern.compile("/\\* (PUBLIC\\.[A-Za-z0-9_.]+)(: [^*]*)? \\*/");
+
+    // Inserts read no table (JDBC batches are recorded as "[batch of n] insert ...")
+    private static final Pattern INSERT = Pattern.compile("(\\[batch of \\d+\\] )?insert ", Pattern.CASE_INSENSITIVE);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User user;
+    private Product product;
+
+    @BeforeEach
+    void someOrders() {
+        user = userRepository.findByUserName("Sandeep");
+        List<Product> products = productRepository.findAll();
+        product = products.get(0);
+        if (orderRepository.count() == 0) {
+            // Spread over the catalog, so the planner sees realistic selectivity
+            List<Order> orders = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                Order order = order(i % 3 == 0 ? "REJECTED" : "ACCEPTED", LocalDateTime.now().minusMinutes(i));
+                order.setProduct(products.get(i % products.size()));
+                orders.add(order);
+            }
+            transactionTemplate.executeWithoutResult(status -> orderRepository.insertAll(orders));
+        }
+    }
+
+    private Order order(String status, LocalDateTime orderDate) {
+        Order order = new Order();
+        order.setUser(user);
+        order.setProduct(product);
+        order.setStatus(status);
+        order.setOrderDate(orderDate);
+        return order;
+    }
+
+    // One call per query method, keyed Repository.method
+    private Map<String, Runnable> queries() {
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("OrderRepository.findByUser", () -> orderRepository.findByUser(user));
+        queries.put("OrderRepository.findByUserOrderByOrderDateDesc",
+                () -> orderRepository.findByUserOrderByOrderDateDesc(user));
+        queries.put("OrderRepository.findHistoryByUser", () -> orderRepository.findHistoryByUser(user));
+        queries.put("OrderRepository.findByStatus", () -> orderRepository.findByStatus("REJECTED"));
+        queries.put("OrderRepository.countByStatus", () -> orderRepository.countByStatus("REJECTED"));
+        queries.put("OrderRepository.countGroupedByStatus", () -> orderRepository.countGroupedByStatus());
+        queries.put("OrderRepository.findNewest", () -> orderRepository.findNewest(PageRequest.of(0, 50)));
+        queries.put("OrderRepository.findOlderThan",
+                () -> orderRepository.findOlderThan(now, Long.MAX_VALUE, PageRequest.of(0, 50)));
+        queries.put("OrderRepository.findNewerThan",
+                () -> orderRepository.findNewerThan(now.minusDays(1), 0L, PageRequest.of(0, 50)));
+        queries.put("OrderRepositoryCustom.insertAll", () -> transactionTemplate.executeWithoutResult(
+                status -> orderRepository.insertAll(List.of(order("PENDING", now)))));
+        queries.put("OrderRepositoryCustom.streamForExport", () -> transactionTemplate.executeWithoutResult(
+                status -> {
+                    try (Stream<OrderExportRow> rows = orderRepository.streamForExport(
+                            now.minusHours(1), now, "ACCEPTED")) {
+                        rows.forEach(row -> { });
+                    }
+                }));
+        // Reads every order by design, but in primary key order so nothing is sorted
+        queries.put("OrderRepositoryCustom.streamForAnalytics", () -> transactionTemplate.executeWithoutResult(
+                status -> {
+                    try (Stream<OrderFact> facts = orderRepository.streamForAnalytics()) {
+                        facts.forEach(fact -> { });
+                    }
+                }));
+        queries.put("ProductRepository.decrementStock", () -> transactionTemplate.executeWithoutResult(
+                status -> productRepository.decrementStock(product.getId(), 0)));
+        queries.put("UserRepository.findByUserName", () -> userRepository.findByUserName("Sandeep"));
+        queries.put("UserRepository.existsByRoles", () -> userRepository.existsByRoles("ROLE_ADMIN"));
+        return queries;
+    }
+
+    @Test
+    void everyQueryMethodIsChecked() {
+        TreeSet<String> declared = new TreeSet<>();
+        for (Class<?> repository : new Class<?>[] { OrderRepository.class, OrderRepositoryCustom.class,
+                ProductRepository.class, UserRepository.class }) {
+            for (Method method : repository.getDeclaredMethods()) {
+                declared.add(repository.getSimpleName() + "." + method.getName());
+            }
+        }
+        assertEquals(declared, new TreeSet<>(queries().keySet()),
+                "Add new repository query methods to RepositoryQueryPlanTest.queries()");
+    }
+
+    @Test
+    void noQueryReadsAWholeTable() {
+        List<String> failures = new ArrayList<>();
+        for (Map.Entry<String, Runnable> query : queries().entrySet()) {
+            SqlStatementCounter.start();
+            List<String> statements;
+            try {
+                query.getValue().run();
+            } finally {
+                statements = SqlStatementCounter.stop();
+            }
+            assertFalse(statements.isEmpty(), query.getKey() + " sent no SQL");
+
+            for (String sql : statements) {
+                if (INSERT.matcher(sql).lookingAt()) {
+                    continue;
+                }
+                String plan = explain(sql);
+                String problem = fullScan(plan);
+                if (problem != null) {
+                    failures.add(query.getKey() + ": " + problem + "\n    " + plan.replaceAll("\\s+", " "));
+                }
+            }
+        }
+        if (!failures.isEmpty()) {
+            fail("Full scans:\n  " + String.join("\n  ", failures));
+        }
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.query(connection -> connection.prepareStatement("EXPLAIN " + sql),
+                rs -> rs.next() ? rs.getString(1) : "");
+    }
+
+    // Null if every table is reached through an index condition or an index that supplies the order
+    private static String fullScan(String plan) {
+        boolean ordered = plan.contains("/* index sorted */") || plan.contains("/* group sorted */");
+        Matcher access = TABLE_ACCESS.matcher(plan);
+        boolean found = false;
+        while (access.find()) {
+            found = true;
+            String index = access.group(1);
+            if (index.endsWith(".tableScan")) {
+                return "table scan of " + index.substring(0, index.length() - ".tableScan".length());
+            }
+            if (access.group(2) == null && !ordered) {
+                return "unconditioned scan of index " + index;
+            }
+        }
+        return found ? null : "no table access found in the plan";
+    }
+}
@@ -0,0 +1,125 @@
+package com.register.springboot.security;
+
+import com.register.springboot.SpringbootApplication;
+import com.register.springboot.support.SqlCountingConfiguration;
+import com.register.springboot.support.SqlStatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import javax.servlet.http.Cookie;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestBuilders.formLogin;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Sessions in the database (SessionStoreConfiguration) on H2
+ */
+@SpringBootTest(classes = SpringbootApplication.class, properties = {
+        "spring.session.store-type=jdbc",
+        "app.session.cleanup-batch-size=2",
+        // Cleanup runs from the tests, not the scheduler
+        "app.session.cleanup-ms=3600000"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(SqlCountingConfiguration.class)
+class SessionStoreTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SessionStoreConfiguration sessionStore;
+
+    @BeforeEach
+    void noSessions() {
+        jdbcTemplate.update("delete from SPRING_SESSION");
+    }
+
+    // The security context is stored as the username alone
+    @Test
+    void loginStoresOnlyTheUsername() throws Exception {
+        login();
+
+        assertEquals("Sandeep", jdbcTemplate.queryForObject("select PRINCIPAL_NAME from SPRING_SESSION", String.class));
+        byte[] stored = jdbcTemplate.queryForObject(
+                "select ATTRIBUTE_BYTES from SPRING_SESSION_ATTRIBUTES where ATTRIBUTE_NAME = 'SPRING_SECURITY_CONTEXT'",
+                byte[].class);
+        byte[] expected = ("\u0001Sandeep").getBytes(StandardCharsets.UTF_8);
+        assertArrayEquals(expected, stored);
+    }
+
+    // Later requests rebuild the login from the username, and read the session without writing it
+    @Test
+    void unchangedSessionIsNotWritten() throws Exception {
+        Cookie session = login();
+
+        SqlStatementCounter.start();
+        List<String> statements;
+        try {
+            mvc.perform(get("/admin/orders").cookie(session)).andExpect(status().isOk());
+        } finally {
+            statements = SqlStatementCounter.stop();
+        }
+        for (String sql : statements) {
+            assertTrue(!sql.contains("SPRING_SESSION") || sql.startsWith("SELECT"), sql);
+        }
+    }
+
+    @Test
+    void logoutDeletesTheSession() throws Exception {
+        Cookie session = login();
+
+        mvc.perform(post("/logout").cookie(session).accept(MediaType.TEXT_HTML))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(cookie().maxAge("JSESSIONID", 0));
+
+        assertEquals(0, count());
+        mvc.perform(get("/admin/orders").cookie(session).accept(MediaType.TEXT_HTML))
+                .andExpect(status().is3xxRedirection());
+    }
+
+    @Test
+    void expiredSessionsAreDeletedInBatches() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            login();
+        }
+        jdbcTemplate.update("update SPRING_SESSION set EXPIRY_TIME = 0");
+        login();
+
+        sessionStore.deleteExpiredSessions();
+
+        assertEquals(1, count());
+    }
+
+    private Cookie login() throws Exception {
+        Cookie session = mvc.perform(formLogin().user("Sandeep").password("Sandy123"))
+                .andExpect(status().is3xxRedirection())
+                .andReturn().getResponse().getCookie("JSESSIONID");
+        assertNotNull(session);
+        return session;
+    }
+
+    private int count() {
+        return jdbcTemplate.queryForObject("select count(*) from SPRING_SESSION", Integer.class);
+    }
+}
@@ -0,0 +1,79 @@
+package com.register.springboot.service;
+
+import com.register.springboot.SpringbootApplication;
+import com.register.springboot.model.Order;
+import com.register.springboot.model.Product;
+import com.register.springboot.model.User;
+import com.register.springboot.repository.ProductRepository;
+import com.register.springboot.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import java.util.List;
+import java.util.Map;
+
+import static com.register.springboot.support.TestOrders.validOrder;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Queued orders are stored with their tracking id, also when they cannot be placed
+ */
+@SpringBootTest(classes = SpringbootApplication.class, properties = "app.orders.async.enabled=true")
+@ActiveProfiles("test")
+class AsyncOrderServiceTest {
+
+    @Autowired
+    private AsyncOrderService asyncOrderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void storedOrderCarriesItsTrackingId() throws InterruptedException {
+        String trackingId = submit("Ravi Kumar");
+
+        Map<String, Object> stored = awaitStored(trackingId);
+        assertEquals("ACCEPTED", stored.get("status"));
+    }
+
+    // Valid letters, but too long for the column: the insert fails, the order must not vanish
+    @Test
+    void orderThatCannotBePlacedIsStoredAsRejected() throws InterruptedException {
+        String trackingId = submit("A".repeat(300));
+
+        Map<String, Object> stored = awaitStored(trackingId);
+        assertEquals("REJECTED", stored.get("status"));
+        assertTrue(((String) stored.get("rejection_reason")).startsWith("Order could not be processed"));
+    }
+
+    private String submit(String customerName) {
+        User admin = userRepository.findByUserName("Sandeep");
+        Product product = productRepository.findAll().get(0);
+        String trackingId = asyncOrderService.submit(validOrder(customerName), admin, product);
+        assertNotNull(trackingId);
+        return trackingId;
+    }
+
+    private Map<String, Object> awaitStored(String trackingId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (true) {
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                    "select status, rejection_reason from orders where tracking_id = ?", trackingId);
+            if (!rows.isEmpty() || System.currentTimeMillis() > deadline) {
+                assertEquals(1, rows.size());
+                return rows.get(0);
+            }
+            Thread.sleep(20);
+        }
+    }
+}
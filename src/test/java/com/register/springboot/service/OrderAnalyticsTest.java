@@ -0,0 +1,163 @@
+package com.register.springboot.service;
+
+import com.register.springboot.SpringbootApplication;
+import com.register.springboot.model.Order;
+import com.register.springboot.model.OrderFact;
+import com.register.springboot.model.Product;
+import com.register.springboot.model.RevenueReport;
+import com.register.springboot.model.User;
+import com.register.springboot.repository.ProductRepository;
+import com.register.springboot.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static com.register.springboot.support.TestOrders.validOrder;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Reports of the in-memory analytics columns against the same GROUP BY in SQL
+ * Every report is aggregated in parallel chunks here (parallel-threshold=1).
+ */
+@SpringBootTest(classes = SpringbootApplication.class, properties = "app.analytics.parallel-threshold=1")
+@ActiveProfiles("test")
+class OrderAnalyticsTest {
+
+    @Autowired
+    private OrderAnalytics orderAnalytics;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User admin;
+    private Product product;
+
+    @BeforeEach
+    void placeOrdersInSeveralStates() {
+        admin = userRepository.findByUserName("Sandeep");
+        product = productRepository.findAll().get(0);
+        for (String state : new String[] { "Kerala", "Goa", "Goa", "Punjab" }) {
+            Order order = validOrder();
+            order.setState(state);
+            orderService.placeOrder(order, admin, product.getId());
+        }
+    }
+
+    @Test
+    void revenueByStateMatchesSql() {
+        assertMatchesSql("ACCEPTED");
+    }
+
+    @Test
+    void statusChangesAreApplied() {
+        Order order = orderService.placeOrder(validOrder(), admin, product.getId());
+        orderService.updateOrderStatus(order.getId(), "PENDING");
+
+        assertMatchesSql("ACCEPTED");
+        assertMatchesSql("PENDING");
+    }
+
+    // An order that commits after a newer one is still found for its status change and not added twice
+    @Test
+    void lateCommittedOrdersAreFound() {
+        long newest = orderService.placeOrder(validOrder(), admin, product.getId()).getId();
+        int size = orderAnalytics.size();
+        try {
+            orderAnalytics.append(List.of(fact(newest + 20, "Assam")));
+            orderAnalytics.append(List.of(fact(newest + 10, "Assam")));
+            orderAnalytics.append(List.of(fact(newest + 10, "Assam")));
+            orderAnalytics.statusChanged(newest + 10, "PENDING");
+
+            assertEquals(size + 2, orderAnalytics.size());
+            assertEquals(1, assamOrders("ACCEPTED"));
+            assertEquals(1, assamOrders("PENDING"));
+        } finally {
+            // Back to what the orders table holds
+            orderAnalytics.reload();
+        }
+    }
+
+    @Test
+    void reloadGivesTheSameReport() {
+        RevenueReport before = orderAnalytics.report(OrderAnalytics.Grouping.PRODUCT, null, null, "ACCEPTED", 0);
+        orderAnalytics.reload();
+        RevenueReport after = orderAnalytics.report(OrderAnalytics.Grouping.PRODUCT, null, null, "ACCEPTED", 0);
+
+        assertEquals(before.getOrders(), after.getOrders());
+        assertEquals(before.getRevenue(), after.getRevenue());
+        assertEquals(before.getLines().size(), after.getLines().size());
+    }
+
+    @Test
+    void dayReportIsLimitedToTheRange() {
+        LocalDate today = LocalDate.now();
+        RevenueReport report = orderAnalytics.report(OrderAnalytics.Grouping.DAY, today, today, "ACCEPTED", 0);
+
+        assertEquals(1, report.getLines().size());
+        assertEquals(today.toString(), report.getLines().get(0).getKey());
+        assertTrue(orderAnalytics.report(OrderAnalytics.Grouping.DAY, today.plusDays(1), null, "ACCEPTED", 0)
+                .getLines().isEmpty());
+    }
+
+    @Test
+    void groupingNameDoesNotDependOnTheDefaultLocale() {
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(new Locale("tr", "TR"));
+        try {
+            assertEquals("city", orderAnalytics.report(OrderAnalytics.Grouping.CITY, null, null, null, 0).getGroupedBy());
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    private void assertMatchesSql(String status) {
+        Map<String, Long> ordersByState = new HashMap<>();
+        Map<String, BigDecimal> revenueByState = new HashMap<>();
+        jdbcTemplate.query("select state, count(*), sum(total_price) from orders where status = ? group by state",
+                rs -> {
+                    ordersByState.put(rs.getString(1), rs.getLong(2));
+                    revenueByState.put(rs.getString(1),
+                            BigDecimal.valueOf(rs.getDouble(3)).setScale(2, RoundingMode.HALF_UP));
+                }, status);
+
+        RevenueReport report = orderAnalytics.report(OrderAnalytics.Grouping.STATE, null, null, status, 0);
+        assertEquals(ordersByState.size(), report.getLines().size());
+        for (RevenueReport.Line line : report.getLines()) {
+            assertEquals(ordersByState.get(line.getKey()), line.getOrders(), line.getKey());
+            assertEquals(revenueByState.get(line.getKey()), line.getRevenue(), line.getKey());
+        }
+    }
+
+    private long assamOrders(String status) {
+        return orderAnalytics.report(OrderAnalytics.Grouping.STATE, null, null, status, 0).getLines().stream()
+                .filter(line -> "Assam".equals(line.getKey()))
+                .mapToLong(RevenueReport.Line::getOrders)
+                .sum();
+    }
+
+    private OrderFact fact(long id, String state) {
+        return new OrderFact(id, product.getId(), admin.getId(), 1, product.getPrice(), "ACCEPTED",
+                LocalDateTime.now(), state, "Guwahati");
+    }
+}
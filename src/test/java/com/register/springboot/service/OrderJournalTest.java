@@ -0,0 +1,278 @@
+package com.register.springboot.service;
+
+import com.register.springboot.SpringbootApplication;
+import com.register.springboot.model.Order;
+import com.register.springboot.model.OrderHistoryItem;
+import com.register.springboot.model.Product;
+import com.register.springboot.model.User;
+import com.register.springboot.repository.ProductRepository;
+import com.register.springboot.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.register.springboot.support.TestOrders.validOrder;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.flash;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+
+/**
+ * Journaled orders reach the orders table exactly once, also after a crash
+ * The journal file is created before the application starts, holding one
+ * record as if the previous run had died before storing it.
+ */
+@SpringBootTest(classes = SpringbootApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class OrderJournalTest {
+
+    private static final String RECOVERED_CUSTOMER = "Recovered Customer";
+
+    private static Path journalPath;
+
+    @DynamicPropertySource
+    static void journalLeftByACrash(DynamicPropertyRegistry registry) throws IOException {
+        journalPath = Files.createTempDirectory("order-journal").resolve("journal.bin");
+        try (OrderJournalFile file = OrderJournalFile.open(journalPath, 64)) {
+            // The seeded admin and the first seeded product
+            file.write(record(1, 1, 1L, RECOVERED_CUSTOMER));
+        }
+        registry.add("app.orders.journal.enabled", () -> "true");
+        registry.add("app.orders.journal.path", journalPath::toString);
+        registry.add("app.orders.journal.name", () -> "test");
+    }
+
+    @TempDir
+    Path tempDir;
+
+    @Autowired
+    private OrderJournal orderJournal;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    void recordsLeftByACrashAreStoredOnce() throws InterruptedException {
+        awaitBacklogDrained();
+
+        assertEquals(1, countOrders(RECOVERED_CUSTOMER));
+        assertTrue(appliedSequence() >= 1);
+    }
+
+    @Test
+    void submittedOrderIsStoredBehindTheRequest() throws InterruptedException {
+        User admin = userRepository.findByUserName("Sandeep");
+        Product product = productRepository.findAll().get(0);
+        Order order = validOrder("Journal Customer");
+
+        String trackingId = orderJournal.submit(order, admin, product);
+        assertNotNull(trackingId);
+        long sequence = sequenceOf(trackingId);
+
+        awaitBacklogDrained();
+        assertEquals(1, countOrders("Journal Customer"));
+        assertEquals("ACCEPTED", jdbcTemplate.queryForObject(
+                "select status from orders where customer_name = ?", String.class, "Journal Customer"));
+        assertEquals(trackingId, jdbcTemplate.queryForObject(
+                "select tracking_id from orders where customer_name = ?", String.class, "Journal Customer"));
+        assertTrue(appliedSequence() >= sequence);
+        List<OrderHistoryItem> pending = orderJournal.getPendingOrders(admin);
+        assertTrue(pending.isEmpty());
+    }
+
+    @Test
+    void orderThatCannotBePlacedIsStoredAsRejected() throws InterruptedException {
+        User admin = userRepository.findByUserName("Sandeep");
+        Product product = productRepository.findAll().get(0);
+        // Stands in for any data error placing the order hits; the REJECTED row passes it
+        jdbcTemplate.execute("alter table orders add constraint chk_orders_failing check "
+                + "(status = 'REJECTED' or customer_name <> 'Failing Customer')");
+        try {
+            String trackingId = orderJournal.submit(validOrder("Failing Customer"), admin, product);
+            awaitBacklogDrained();
+
+            Map<String, Object> row = jdbcTemplate.queryForMap(
+                    "select status, rejection_reason, tracking_id from orders where customer_name = ?",
+                    "Failing Customer");
+            assertEquals("REJECTED", row.get("status"));
+            assertTrue(((String) row.get("rejection_reason")).startsWith("Order could not be processed"));
+            assertEquals(trackingId, row.get("tracking_id"));
+        } finally {
+            jdbcTemplate.execute("alter table orders drop constraint chk_orders_failing");
+        }
+    }
+
+    // A record that could not be written would leave a gap that recovery stops at
+    @Test
+    void orderWithoutADateIsJournaledWithoutAGap() throws InterruptedException {
+        User admin = userRepository.findByUserName("Sandeep");
+        Product product = productRepository.findAll().get(0);
+        Order undated = validOrder("Undated Customer");
+        undated.setOrderDate(null);
+
+        String first = orderJournal.submit(undated, admin, product);
+        String second = orderJournal.submit(validOrder("Undated Customer"), admin, product);
+        assertNotNull(first);
+        assertEquals(sequenceOf(first) + 1, sequenceOf(second));
+
+        awaitBacklogDrained();
+        assertEquals(2, countOrders("Undated Customer"));
+    }
+
+    @Test
+    void ordersThatDoNotFitARecordAreNotJournaled() {
+        User admin = userRepository.findByUserName("Sandeep");
+        Product product = productRepository.findAll().get(0);
+
+        assertNull(orderJournal.submit(validOrder("A".repeat(64)), admin, product));
+    }
+
+    // The record is on disk but not yet synced: the customer must not place it again
+    @Test
+    void orderThatIsNotSyncedInTimeIsNotPlacedAgain() throws Exception {
+        Product product = productRepository.findAll().get(0);
+        Object syncTimeout = ReflectionTestUtils.getField(orderJournal, "syncTimeoutMillis");
+        // Without the flusher nothing is synced, so the request waits out its (short) timeout
+        Thread flusher = (Thread) ReflectionTestUtils.getField(orderJournal, "flusher");
+        flusher.interrupt();
+        flusher.join();
+        ReflectionTestUtils.setField(orderJournal, "syncTimeoutMillis", 100L);
+        try {
+            mvc.perform(post("/order/" + product.getId()).with(user("Sandeep").roles("ADMIN"))
+                    .param("customerName", "Unsynced Customer")
+                    .param("phone", "9876543210")
+                    .param("city", "Bangalore")
+                    .param("state", "Karnataka")
+                    .param("cardNumber", "1234567812345678"))
+                    .andExpect(redirectedUrl("/my-orders"))
+                    .andExpect(flash().attribute("error",
+                            "Your order was received but is not confirmed yet. Please do not place it again; "
+                                    + "it will appear in My Orders once it is stored."));
+            assertEquals(0, countOrders("Unsynced Customer"));
+        } finally {
+            ReflectionTestUtils.setField(orderJournal, "syncTimeoutMillis", syncTimeout);
+            Thread restarted = new Thread(() -> ReflectionTestUtils.invokeMethod(orderJournal, "flushLoop"),
+                    "order-journal-flusher");
+            restarted.setDaemon(true);
+            ReflectionTestUtils.setField(orderJournal, "flusher", restarted);
+            restarted.start();
+        }
+
+        // Stored once, from the journal, after the restarted flusher syncs it
+        User admin = userRepository.findByUserName("Sandeep");
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!orderJournal.getPendingOrders(admin).isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(orderJournal.getPendingOrders(admin).isEmpty());
+        assertEquals(1, countOrders("Unsynced Customer"));
+    }
+
+    // ==================== Journal file ====================
+
+    @Test
+    void recoveryStopsAtATornRecord() throws IOException {
+        Path path = tempDir.resolve("torn.bin");
+        try (OrderJournalFile file = OrderJournalFile.open(path, 8)) {
+            for (long sequence = 1; sequence <= 4; sequence++) {
+                file.write(record(sequence, 1, 1L, "Customer " + sequence));
+            }
+        }
+        // Half-written record 3: its checksum no longer matches
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] { 'X' }), 3 * OrderJournalFile.RECORD_SIZE + 40);
+        }
+
+        try (OrderJournalFile file = OrderJournalFile.open(path, 8)) {
+            List<OrderJournalFile.Record> recovered = file.recover(1);
+            assertEquals(1, recovered.size());
+            assertEquals(2, recovered.get(0).sequence);
+            assertEquals("Customer 2", recovered.get(0).customerName);
+            // Record 4 came after the gap: cleared, so a later recovery cannot pick it up
+            assertNull(file.read(4));
+        }
+    }
+
+    @Test
+    void slotsAreReusedAroundTheRing() throws IOException {
+        try (OrderJournalFile file = OrderJournalFile.open(tempDir.resolve("ring.bin"), 4)) {
+            for (long sequence = 1; sequence <= 6; sequence++) {
+                file.write(record(sequence, 1, 1L, "Customer " + sequence));
+            }
+
+            assertNull(file.read(2));
+            assertEquals("Customer 6", file.read(6).customerName);
+            assertEquals(List.of(3L, 4L, 5L, 6L),
+                    file.recover(2).stream().map(r -> r.sequence).collect(Collectors.toList()));
+        }
+    }
+
+    private void awaitBacklogDrained() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (orderJournal.getBacklog() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(0, orderJournal.getBacklog());
+    }
+
+    private static long sequenceOf(String trackingId) {
+        return Long.parseLong(trackingId.substring(trackingId.lastIndexOf('-') + 1));
+    }
+
+    private int countOrders(String customerName) {
+        return jdbcTemplate.queryForObject("select count(*) from orders where customer_name = ?",
+                Integer.class, customerName);
+    }
+
+    private long appliedSequence() {
+        return jdbcTemplate.queryForObject(
+                "select applied_sequence from order_journal_checkpoint where journal_name = 'test'", Long.class);
+    }
+
+    private static OrderJournalFile.Record record(long sequence, int userId, long productId, String customerName) {
+        OrderJournalFile.Record record = new OrderJournalFile.Record();
+        record.sequence = sequence;
+        record.orderDate = LocalDateTime.now();
+        record.userId = userId;
+        record.productId = productId;
+        record.quantity = 1;
+        record.customerName = customerName;
+        record.phone = "9876543210";
+        record.city = "Bangalore";
+        record.state = "Karnataka";
+        record.cardNumber = "1234567812345678";
+        return record;
+    }
+}
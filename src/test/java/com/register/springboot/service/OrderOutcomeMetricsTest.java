@@ -0,0 +1,80 @@
+package com.register.springboot.service;
+
+import com.register.springboot.SpringbootApplication;
+import com.register.springboot.model.Order;
+import com.register.springboot.model.Product;
+import com.register.springboot.model.User;
+import com.register.springboot.repository.ProductRepository;
+import com.register.springboot.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.List;
+
+import static com.register.springboot.support.TestOrders.validOrder;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * app.orders.outcome counts committed decisions only
+ */
+@SpringBootTest(classes = SpringbootApplication.class)
+@ActiveProfiles("test")
+class OrderOutcomeMetricsTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void rolledBackOrdersAreNotCounted() {
+        double accepted = outcomes("ACCEPTED");
+        double rejected = outcomes("REJECTED");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            orderService.placeOrders(List.of(order(validOrder()), order(new Order())));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(accepted, outcomes("ACCEPTED"));
+        assertEquals(rejected, outcomes("REJECTED"));
+    }
+
+    @Test
+    void committedOrdersAreCountedOnce() {
+        double accepted = outcomes("ACCEPTED");
+        double rejected = outcomes("REJECTED");
+
+        orderService.placeOrders(List.of(order(validOrder()), order(new Order())));
+
+        assertEquals(accepted + 1, outcomes("ACCEPTED"));
+        assertEquals(rejected + 1, outcomes("REJECTED"));
+    }
+
+    private double outcomes(String status) {
+        return meterRegistry.get("app.orders.outcome").tag("status", status).counter().count();
+    }
+
+    // The seeded admin ordering the first product
+    private Order order(Order order) {
+        User admin = userRepository.findByUserName("Sandeep");
+        Product product = productRepository.findAll().get(0);
+        order.setUser(admin);
+        order.setProduct(product);
+        return order;
+    }
+}
@@ -0,0 +1,101 @@
+package com.register.springboot.service;
+
+import com.register.springboot.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Matching and ranking of the in-memory product search (no application context)
+ */
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void buildIndex() {
+        index = new ProductSearchIndex();
+        index.rebuild(List.of(
+                product(1L, "Business Atlas", "Maps for travel"),
+                product(2L, "Geographic Survey", "Business geography of Asia"),
+                product(3L, "World Maps", "A geographic atlas"),
+                product(4L, "Geo Quiz", "Questions on business")));
+    }
+
+    @Test
+    void everyTermMustMatch() {
+        // Both match "business" in the description; "geo" is a whole name word of product 4
+        assertEquals(List.of(4L, 2L), index.search("business geo"));
+        assertEquals(List.of(), index.search("business cooking"));
+    }
+
+    @Test
+    void termsMatchAsPrefixes() {
+        assertEquals(List.of(2L, 3L), index.search("geographic"));
+        assertTrue(index.search("geog").containsAll(List.of(2L, 3L)));
+    }
+
+    @Test
+    void nameOutranksDescription() {
+        // Product 1 has "business" in its name, 2 and 4 only in the description
+        assertEquals(List.of(1L, 2L, 4L), index.search("business"));
+    }
+
+    @Test
+    void exactWordOutranksPrefix() {
+        // "geo" is a whole name word of product 4 and only a prefix in product 2's name
+        assertEquals(List.of(4L, 2L, 3L), index.search("geo"));
+    }
+
+    @Test
+    void queryIsCaseInsensitiveAndIgnoresPunctuation() {
+        assertEquals(List.of(1L, 3L), index.search("ATLAS!"));
+        assertEquals(List.of(), index.search(" ,. "));
+    }
+
+    @Test
+    void indexAndRemoveAfterRebuild() {
+        index.index(product(5L, "Cooking Basics", "Recipes"));
+        index.index(product(1L, "Road Atlas", "Maps for travel"));
+        index.remove(3L);
+
+        assertEquals(List.of(5L), index.search("cook"));
+        assertEquals(List.of(2L, 4L), index.search("business"));
+        assertEquals(List.of(1L), index.search("atlas"));
+    }
+
+    @Test
+    void changesBeforeTheFirstRebuildAreIgnored() {
+        ProductSearchIndex fresh = new ProductSearchIndex();
+        fresh.index(product(1L, "Business Atlas", null));
+
+        assertEquals(List.of(), fresh.search("business"));
+    }
+
+    @Test
+    void wordsAreLowerCasedIndependentlyOfTheDefaultLocale() {
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(new Locale("tr", "TR"));
+        try {
+            ProductSearchIndex turkish = new ProductSearchIndex();
+            turkish.rebuild(List.of(product(1L, "TITLE INDEX", null)));
+
+            assertEquals(List.of(1L), turkish.search("title"));
+            assertEquals(List.of(1L), turkish.search("INDEX"));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    private static Product product(Long id, String name, String description) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setDescription(description);
+        return product;
+    }
+}
@@ -0,0 +1,87 @@
+package com.register.springboot.support;
+
+import com.register.springboot.SpringbootApplication;
+import com.register.springboot.security.MyUserDetailsService;
+import com.register.springboot.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+
+/**
+ * SqlBudgetTest - Base class for tests that cap the SQL statements of one MockMvc request
+ * Caches are emptied before every test, so budgets are the cold-cache worst
+ * case, not what a request usually costs.
+ */
+@SpringBootTest(classes = SpringbootApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(SqlCountingConfiguration.class)
+public abstract class SqlBudgetTest {
+
+    @Autowired
+    protected MockMvc mvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private MyUserDetailsService userDetailsService;
+
+    @BeforeEach
+    void emptyCaches() {
+        productService.clearCache();
+        userDetailsService.evictAll();
+    }
+
+    /**
+     * The seeded admin, logged in with the ADMIN role
+     */
+    protected static RequestPostProcessor admin() {
+        return user("Sandeep").roles("ADMIN");
+    }
+
+    /**
+     * The seeded admin, logged in as a plain customer (USER role)
+     */
+    protected static RequestPostProcessor customer() {
+        return user("Sandeep").roles("USER");
+    }
+
+    /**
+     * Performs the request and fails if it issued more than maxStatements SQL statements
+     *
+     * @param maxStatements Statement budget of the request
+     * @param request       Request to perform
+     * @return Result, for further expectations
+     */
+    protected ResultActions perform(int maxStatements, RequestBuilder request) throws Exception {
+        SqlStatementCounter.start();
+        ResultActions result;
+        List<String> statements;
+        try {
+            result = mvc.perform(request);
+        } finally {
+            statements = SqlStatementCounter.stop();
+        }
+        if (statements.size() > maxStatements) {
+            StringBuilder message = new StringBuilder()
+                    .append(statements.size()).append(" SQL statements issued, budget is ").append(maxStatements);
+            for (String sql : statements) {
+                message.append("\n  ").append(sql);
+            }
+            fail(message.toString());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,23 @@
+package com.register.springboot.support;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import javax.sql.DataSource;
+
+/**
+ * SqlCountingConfiguration - Wraps the application DataSource with {@link SqlStatementCounter}
+ */
+@TestConfiguration
+public class SqlCountingConfiguration {
+
+    @Bean
+    static BeanPostProcessor sqlCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource ? SqlStatementCounter.wrap((DataSource) bean) : bean;
+            }
+        };
+    }
+}
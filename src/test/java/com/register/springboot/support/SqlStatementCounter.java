@@ -0,0 +1,127 @@
+package com.register.springboot.support;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SqlStatementCounter - Records the SQL statements the current thread sends to the database
+ * Works on a DataSource wrapped with {@link #wrap(DataSource)}. Only the thread
+ * that called {@link #start()} is recorded, so background work (async order
+ * workers, scheduled reconciles) does not disturb a MockMvc request's count.
+ * Each execute call is one statement; a JDBC batch counts once.
+ */
+public final class SqlStatementCounter {
+
+    private static final ThreadLocal<List<String>> RECORDED = new ThreadLocal<>();
+
+    private SqlStatementCounter() {
+    }
+
+    /** Start recording on this thread (drops anything recorded before) */
+    public static void start() {
+        RECORDED.set(new ArrayList<>());
+    }
+
+    /** Stop recording on this thread and return the statements, in order */
+    public static List<String> stop() {
+        List<String> statements = RECORDED.get();
+        RECORDED.remove();
+        return statements != null ? statements : new ArrayList<>();
+    }
+
+    private static void record(String sql) {
+        List<String> statements = RECORDED.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+    }
+
+    // ========================================
+    // JDBC PROXIES
+    // ========================================
+
+    /** DataSource whose connections report every executed statement */
+    public static DataSource wrap(DataSource dataSource) {
+        return new DelegatingDataSource(dataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return proxy(Connection.class, super.getConnection(), new ConnectionHandler());
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                return proxy(Connection.class, super.getConnection(username, password), new ConnectionHandler());
+            }
+        };
+    }
+
+    // Wraps the statements a connection hands out
+    private static final class ConnectionHandler implements TargetHandler {
+        @Override
+        public Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            Object result = call(target, method, args);
+            String name = method.getName();
+            if (result instanceof CallableStatement) {
+                return proxy(CallableStatement.class, result, new StatementHandler((String) args[0]));
+            } else if (result instanceof PreparedStatement) {
+                return proxy(PreparedStatement.class, result, new StatementHandler((String) args[0]));
+            } else if (result instanceof Statement && name.equals("createStatement")) {
+                return proxy(Statement.class, result, new StatementHandler(null));
+            }
+            return result;
+        }
+    }
+
+    // Records execute* calls; prepared statements know their SQL up front
+    private static final class StatementHandler implements TargetHandler {
+        private final String preparedSql;
+        private int batched;
+
+        StatementHandler(String preparedSql) {
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("addBatch")) {
+                batched++;
+            } else if (name.equals("executeBatch") || name.equals("executeLargeBatch")) {
+                record("[batch of " + batched + "] " + (preparedSql != null ? preparedSql : "statements"));
+                batched = 0;
+            } else if (name.startsWith("execute")) {
+                record(args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : preparedSql);
+            }
+            return call(target, method, args);
+        }
+    }
+
+    private interface TargetHandler {
+        Object invoke(Object target, Method method, Object[] args) throws Throwable;
+    }
+
+    private static <T> T proxy(Class<T> type, Object target, TargetHandler handler) {
+        InvocationHandler invocationHandler = (proxy, method, args) -> handler.invoke(target, method, args);
+        return type.cast(Proxy.newProxyInstance(SqlStatementCounter.class.getClassLoader(),
+                new Class<?>[] { type }, invocationHandler));
+    }
+
+    private static Object call(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.register.springboot.support;
+
+import com.register.springboot.model.Order;
+
+/**
+ * TestOrders - Order details that pass OrderValidator, for tests and benchmarks
+ * A new Order per call: placing an order fills in its id, status and totals.
+ */
+public final class TestOrders {
+
+    private TestOrders() {
+    }
+
+    public static Order validOrder() {
+        return validOrder("Ravi Kumar");
+    }
+
+    public static Order validOrder(String customerName) {
+        Order order = new Order();
+        order.setCustomerName(customerName);
+        order.setPhone("9876543210");
+        order.setCity("Bangalore");
+        order.setState("Karnataka");
+        order.setCardNumber("1234567812345678");
+        return order;
+    }
+}